@@ -0,0 +1,134 @@
+package org.example.bookingloadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clients en boucle fermée sur POST /api/reservations : chaque client envoie sa requête suivante
+ * dès la réponse reçue. La réservation i vise le restaurant 1 + i % restaurants, au créneau
+ * (i / restaurants) % creneaux ; les créneaux sont à 20:00 sur des jours successifs et ne se
+ * chevauchent donc pas.
+ */
+class BookingLoadDriver {
+
+    static final int CREEE = 0;
+    static final int REFUSEE = 1;
+    static final int ERREUR = 2;
+    static final int HEURE_CRENEAU = 20;
+
+    // Réponse de reservation-service quand restaurant-service refuse les places
+    private static final String REFUS = "Restaurant non disponible";
+
+    private final HttpClient client;
+    private final URI reservations;
+    private final LoadTestOptions options;
+
+    BookingLoadDriver(HttpClient client, String reservationUrl, LoadTestOptions options) {
+        this.client = client;
+        this.reservations = URI.create(reservationUrl + "/api/reservations");
+        this.options = options;
+    }
+
+    static LocalDateTime creneau(LocalDate premierJour, int numero) {
+        return premierJour.plusDays(numero).atTime(HEURE_CRENEAU, 0);
+    }
+
+    Mesures executer(int nombre, LocalDate premierJour) throws Exception {
+        Mesures mesures = new Mesures(nombre);
+        AtomicInteger suivante = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(options.getConcurrence());
+        try {
+            long debut = System.nanoTime();
+            List<Future<?>> boucles = new ArrayList<>();
+            for (int c = 0; c < options.getConcurrence(); c++) {
+                boucles.add(clients.submit(() -> {
+                    for (int i = suivante.getAndIncrement(); i < nombre; i = suivante.getAndIncrement()) {
+                        envoyer(i, premierJour, mesures);
+                    }
+                }));
+            }
+            for (Future<?> boucle : boucles) {
+                boucle.get();
+            }
+            mesures.dureeNanos = System.nanoTime() - debut;
+        } finally {
+            clients.shutdownNow();
+        }
+        return mesures;
+    }
+
+    private void envoyer(int i, LocalDate premierJour, Mesures mesures) {
+        int restaurant = 1 + i % options.getRestaurants();
+        int utilisateur = 1 + i % options.getUtilisateurs();
+        LocalDateTime date = creneau(premierJour, (i / options.getRestaurants()) % options.getCreneaux());
+        String corps = String.format("{\"restaurantId\":%d,\"userId\":%d,\"customerName\":\"Client Charge %d\","
+                        + "\"customerEmail\":\"charge%d@email.com\",\"customerPhone\":\"+212600000000\","
+                        + "\"reservationDateTime\":\"%s\",\"numberOfGuests\":%d}",
+                restaurant, utilisateur, utilisateur, utilisateur, date, options.getCouverts());
+        HttpRequest requete = HttpRequest.newBuilder(reservations)
+                .timeout(Duration.ofSeconds(options.getDelaiSecondes()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corps))
+                .build();
+
+        long debut = System.nanoTime();
+        try {
+            HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+            mesures.latences[i] = System.nanoTime() - debut;
+            mesures.codes[i] = reponse.statusCode();
+            if (reponse.statusCode() == 201) {
+                mesures.issues[i] = CREEE;
+            } else if (reponse.statusCode() == 400 && reponse.body().contains(REFUS)) {
+                mesures.issues[i] = REFUSEE;
+            } else {
+                mesures.issues[i] = ERREUR;
+            }
+        } catch (Exception e) {
+            // Délai dépassé ou connexion refusée : code 0
+            mesures.latences[i] = System.nanoTime() - debut;
+            mesures.issues[i] = ERREUR;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Une case par requête, écrite par le seul client qui l'a envoyée
+    static final class Mesures {
+        final long[] latences;
+        final int[] codes;
+        final byte[] issues;
+        long dureeNanos;
+
+        Mesures(int nombre) {
+            latences = new long[nombre];
+            codes = new int[nombre];
+            issues = new byte[nombre];
+        }
+
+        int nombre() {
+            return issues.length;
+        }
+
+        int compter(int issue) {
+            int n = 0;
+            for (byte i : issues) {
+                if (i == issue) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+}
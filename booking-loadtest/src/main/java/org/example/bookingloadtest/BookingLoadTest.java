@@ -0,0 +1,44 @@
+package org.example.bookingloadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Banc de charge de bout en bout de la création de réservation : POST /api/reservations sur
+ * reservation-service, qui vérifie l'utilisateur puis réserve les places auprès de
+ * restaurant-service via RestaurantClient (deux appels Feign synchrones par réservation).
+ *
+ * Lancement : mvn -pl booking-loadtest -am install -DskipTests, puis
+ * mvn -pl booking-loadtest exec:exec -Dcharge.args="concurrence=64 restaurants=1 creneaux=1"
+ */
+public class BookingLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.lire(args);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(options.getDelaiSecondes()))
+                .build();
+
+        System.out.println("Démarrage des services (mode " + options.getMode() + ")...");
+        try (Services services = Services.demarrer(options)) {
+            System.out.println("restaurant-service : " + services.restaurantUrl()
+                    + ", reservation-service : " + services.reservationUrl());
+            BookingLoadDriver driver = new BookingLoadDriver(client, services.reservationUrl(), options);
+
+            // L'échauffement réserve les jours suivant les créneaux mesurés pour ne pas les remplir
+            LocalDate premierJour = LocalDate.now().plusDays(options.getDecalageJours());
+            if (options.getEchauffement() > 0) {
+                System.out.println("Échauffement : " + options.getEchauffement() + " requêtes");
+                driver.executer(options.getEchauffement(), premierJour.plusDays(options.getCreneaux()));
+            }
+
+            System.out.println("Mesure : " + options.getRequetes() + " requêtes");
+            BookingLoadDriver.Mesures mesures = driver.executer(options.getRequetes(), premierJour);
+            OverbookingCheck.Resultat controle = new OverbookingCheck(client, services.restaurantUrl(),
+                    services.reservationUrl(), options).verifier(premierJour);
+            new LoadTestReport(System.out).imprimer(options, mesures, controle);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.bookingloadtest;
+
+import org.example.reservationservice.ReservationServiceApplication;
+import org.example.restaurantservice.RestaurantServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Les deux services dans la JVM du banc, chacun dans son contexte Spring avec son propre Tomcat.
+ * Ils partagent le classpath, où leurs application.properties portent le même nom : chaque
+ * application reçoit un chargeur de ressources qui ne lui montre que les siens.
+ */
+class EmbeddedServices implements Services {
+
+    private final ConfigurableApplicationContext restaurant;
+    private final ConfigurableApplicationContext reservation;
+
+    private EmbeddedServices(ConfigurableApplicationContext restaurant, ConfigurableApplicationContext reservation) {
+        this.restaurant = restaurant;
+        this.reservation = reservation;
+    }
+
+    static EmbeddedServices demarrer() {
+        ConfigurableApplicationContext restaurant = lancer(RestaurantServiceApplication.class,
+                Services.arguments("charge_restaurant", 0));
+        try {
+            List<String> arguments = new ArrayList<>(Services.arguments("charge_reservation", 0));
+            arguments.add("--restaurant.service.url=" + url(restaurant));
+            return new EmbeddedServices(restaurant, lancer(ReservationServiceApplication.class, arguments));
+        } catch (RuntimeException e) {
+            restaurant.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String restaurantUrl() {
+        return url(restaurant);
+    }
+
+    @Override
+    public String reservationUrl() {
+        return url(reservation);
+    }
+
+    @Override
+    public void close() {
+        reservation.close();
+        restaurant.close();
+    }
+
+    private static ConfigurableApplicationContext lancer(Class<?> application, List<String> arguments) {
+        ClassLoader configuration = new ConfigurationIsolee(application);
+        return new SpringApplicationBuilder(application)
+                .resourceLoader(new DefaultResourceLoader(configuration))
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private static String url(ConfigurableApplicationContext contexte) {
+        return "http://localhost:" + contexte.getEnvironment().getProperty("local.server.port");
+    }
+
+    // Classes et autres ressources : celles du classpath ; application*.properties : ceux du service
+    private static final class ConfigurationIsolee extends ClassLoader {
+        private static final Pattern CONFIGURATION = Pattern.compile("application(-[^/]+)?\\.(properties|ya?ml)");
+
+        private final URLClassLoader service;
+
+        ConfigurationIsolee(Class<?> application) {
+            super(application.getClassLoader());
+            URL source = application.getProtectionDomain().getCodeSource().getLocation();
+            this.service = new URLClassLoader(new URL[]{source}, null);
+        }
+
+        @Override
+        public URL getResource(String nom) {
+            return CONFIGURATION.matcher(nom).matches() ? service.findResource(nom) : super.getResource(nom);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String nom) throws IOException {
+            if (!CONFIGURATION.matcher(nom).matches()) {
+                return super.getResources(nom);
+            }
+            URL url = service.findResource(nom);
+            return url != null ? Collections.enumeration(List.of(url)) : Collections.emptyEnumeration();
+        }
+    }
+}
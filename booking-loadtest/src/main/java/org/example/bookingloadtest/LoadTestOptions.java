@@ -0,0 +1,80 @@
+package org.example.bookingloadtest;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options du banc de charge, passées en cle=valeur (ou --cle=valeur).
+ * Par défaut : les deux services dans cette JVM sur H2 en mémoire, 32 clients concurrents
+ * répartis sur 21 restaurants et 50 créneaux. restaurants=1 creneaux=1 met tous les clients
+ * en concurrence sur le même restaurant au même horaire.
+ */
+@Getter
+public class LoadTestOptions {
+
+    private static final Set<String> MODES = Set.of("jvm", "processus", "externe");
+
+    private final String mode;
+    private final String restaurantUrl;
+    private final String reservationUrl;
+    private final int requetes;
+    private final int echauffement;
+    private final int concurrence;
+    private final int restaurants;
+    private final int creneaux;
+    private final int couverts;
+    private final int utilisateurs;
+    private final int dureeReservationMinutes;
+    private final int decalageJours;
+    private final int delaiSecondes;
+
+    private LoadTestOptions(Map<String, String> valeurs) {
+        mode = valeurs.getOrDefault("mode", "jvm");
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("Mode inconnu: " + mode + " (jvm, processus ou externe)");
+        }
+        restaurantUrl = valeurs.getOrDefault("restaurant-url", "http://localhost:8085");
+        reservationUrl = valeurs.getOrDefault("reservation-url", "http://localhost:8080");
+        requetes = entier(valeurs, "requetes", 2000);
+        echauffement = entier(valeurs, "echauffement", 300);
+        concurrence = entier(valeurs, "concurrence", 32);
+        restaurants = entier(valeurs, "restaurants", 21);
+        creneaux = entier(valeurs, "creneaux", 50);
+        couverts = entier(valeurs, "couverts", 2);
+        // Utilisateurs 1..n : les 10 du jeu d'exemple de reservation-service
+        utilisateurs = entier(valeurs, "utilisateurs", 10);
+        // Doit correspondre à availability.duree-reservation-minutes de restaurant-service
+        dureeReservationMinutes = entier(valeurs, "duree-reservation-minutes", 120);
+        // Premier créneau mesuré dans n jours ; à changer pour rejouer sur une base déjà chargée
+        decalageJours = entier(valeurs, "decalage-jours", 30);
+        delaiSecondes = entier(valeurs, "delai-secondes", 30);
+    }
+
+    public static LoadTestOptions lire(String... args) {
+        Map<String, String> valeurs = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int egal = option.indexOf('=');
+            if (egal <= 0) {
+                throw new IllegalArgumentException("Option attendue sous la forme cle=valeur: " + arg);
+            }
+            valeurs.put(option.substring(0, egal), option.substring(egal + 1));
+        }
+        return new LoadTestOptions(valeurs);
+    }
+
+    private static int entier(Map<String, String> valeurs, String cle, int defaut) {
+        String valeur = valeurs.get(cle);
+        if (valeur == null) {
+            return defaut;
+        }
+        int entier = Integer.parseInt(valeur);
+        if (entier < (cle.equals("echauffement") ? 0 : 1)) {
+            throw new IllegalArgumentException("Valeur invalide pour " + cle + ": " + valeur);
+        }
+        return entier;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.bookingloadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.example.bookingloadtest.BookingLoadDriver.CREEE;
+import static org.example.bookingloadtest.BookingLoadDriver.ERREUR;
+import static org.example.bookingloadtest.BookingLoadDriver.REFUSEE;
+
+/**
+ * Rapport texte : débit, latences par centile (toutes requêtes puis par issue), taux d'erreur
+ * et résultat du contrôle de surréservation.
+ */
+class LoadTestReport {
+
+    private static final double[] CENTILES = {50, 90, 99, 99.9};
+    private static final String[] ISSUES = {"créées", "refusées", "erreurs"};
+
+    private final PrintStream sortie;
+
+    LoadTestReport(PrintStream sortie) {
+        this.sortie = sortie;
+    }
+
+    void imprimer(LoadTestOptions options, BookingLoadDriver.Mesures mesures, OverbookingCheck.Resultat controle) {
+        int nombre = mesures.nombre();
+        double secondes = mesures.dureeNanos / 1e9;
+        sortie.printf("%nPOST /api/reservations : %d requêtes, %d clients, %d restaurants x %d créneaux, %d couverts%n",
+                nombre, options.getConcurrence(), options.getRestaurants(), options.getCreneaux(), options.getCouverts());
+        sortie.printf("Durée %.2f s, débit %.1f req/s%n", secondes, nombre / secondes);
+
+        sortie.printf("%-10s %8s %9s", "", "nombre", "taux");
+        for (double centile : CENTILES) {
+            sortie.printf(" %9s", "p" + formater(centile));
+        }
+        sortie.printf(" %9s%n", "max");
+        ligne("toutes", mesures.latences, nombre);
+        for (int issue = CREEE; issue <= ERREUR; issue++) {
+            ligne(ISSUES[issue], latences(mesures, issue), nombre);
+        }
+        sortie.println("(latences en ms)");
+
+        Map<Integer, Integer> erreurs = new TreeMap<>();
+        for (int i = 0; i < nombre; i++) {
+            if (mesures.issues[i] == ERREUR) {
+                erreurs.merge(mesures.codes[i], 1, Integer::sum);
+            }
+        }
+        if (!erreurs.isEmpty()) {
+            StringBuilder detail = new StringBuilder("Erreurs par code HTTP (0 = délai ou connexion) :");
+            erreurs.forEach((code, n) -> detail.append(' ').append(code).append('=').append(n));
+            sortie.println(detail);
+        }
+
+        int creees = mesures.compter(CREEE);
+        sortie.printf("Surréservation : %d créneau(x) au-delà de la capacité, %d couvert(s) en trop%n",
+                controle.creneauxSurreserves, controle.couvertsEnTrop);
+        sortie.printf("Réservations en base aux créneaux mesurés : %d pour %d réponses 201%s%n",
+                controle.enregistrees, creees, controle.enregistrees == creees ? "" : " (écart)");
+    }
+
+    private void ligne(String libelle, long[] latences, int total) {
+        long[] triees = latences.clone();
+        Arrays.sort(triees);
+        sortie.printf("%-10s %8d %8.2f%%", libelle, triees.length, 100.0 * triees.length / total);
+        for (double centile : CENTILES) {
+            sortie.printf(" %9s", triees.length == 0 ? "-" : millis(triees[rang(triees.length, centile)]));
+        }
+        sortie.printf(" %9s%n", triees.length == 0 ? "-" : millis(triees[triees.length - 1]));
+    }
+
+    private static long[] latences(BookingLoadDriver.Mesures mesures, int issue) {
+        long[] latences = new long[mesures.compter(issue)];
+        int n = 0;
+        for (int i = 0; i < mesures.nombre(); i++) {
+            if (mesures.issues[i] == issue) {
+                latences[n++] = mesures.latences[i];
+            }
+        }
+        return latences;
+    }
+
+    // Méthode du rang le plus proche
+    private static int rang(int taille, double centile) {
+        return Math.max(0, (int) Math.ceil(centile / 100 * taille) - 1);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private static String formater(double centile) {
+        return centile == Math.rint(centile) ? String.valueOf((int) centile) : String.valueOf(centile);
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.bookingloadtest;
+
+import org.example.reservationservice.ReservationServiceApplication;
+import org.example.restaurantservice.RestaurantServiceApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Chaque service dans son propre processus java, lancé avec le classpath du banc privé de
+ * l'autre service (leurs application.properties portent le même nom).
+ * Sorties dans target/loadtest/*.log.
+ */
+class LocalProcessServices implements Services {
+
+    private static final Duration DEMARRAGE_MAX = Duration.ofMinutes(3);
+    private static final Path JOURNAUX = Paths.get("target", "loadtest");
+
+    private final Process restaurant;
+    private final Process reservation;
+    private final String restaurantUrl;
+    private final String reservationUrl;
+
+    private LocalProcessServices(Process restaurant, String restaurantUrl, Process reservation, String reservationUrl) {
+        this.restaurant = restaurant;
+        this.restaurantUrl = restaurantUrl;
+        this.reservation = reservation;
+        this.reservationUrl = reservationUrl;
+    }
+
+    static LocalProcessServices demarrer() throws IOException, InterruptedException {
+        Files.createDirectories(JOURNAUX);
+        HttpClient client = HttpClient.newHttpClient();
+
+        int portRestaurant = portLibre();
+        String restaurantUrl = "http://localhost:" + portRestaurant;
+        Process restaurant = lancer(RestaurantServiceApplication.class, ReservationServiceApplication.class,
+                Services.arguments("charge_restaurant", portRestaurant), "restaurant-service");
+        Process reservation = null;
+        try {
+            // Jeu d'exemple inséré et index chargés après l'ouverture du port : on attend une fiche servie
+            attendre(client, restaurant, restaurantUrl + "/api/restaurants/1", "restaurant-service");
+
+            int portReservation = portLibre();
+            String reservationUrl = "http://localhost:" + portReservation;
+            List<String> arguments = new ArrayList<>(Services.arguments("charge_reservation", portReservation));
+            arguments.add("--restaurant.service.url=" + restaurantUrl);
+            reservation = lancer(ReservationServiceApplication.class, RestaurantServiceApplication.class,
+                    arguments, "reservation-service");
+            attendre(client, reservation, reservationUrl + "/api/users/1/exists", "reservation-service");
+            return new LocalProcessServices(restaurant, restaurantUrl, reservation, reservationUrl);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            arreter(reservation);
+            arreter(restaurant);
+            throw e;
+        }
+    }
+
+    @Override
+    public String restaurantUrl() {
+        return restaurantUrl;
+    }
+
+    @Override
+    public String reservationUrl() {
+        return reservationUrl;
+    }
+
+    @Override
+    public void close() {
+        arreter(reservation);
+        arreter(restaurant);
+    }
+
+    private static Process lancer(Class<?> application, Class<?> autre, List<String> arguments, String nom)
+            throws IOException {
+        String exclu = source(autre);
+        String classpath = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entree -> !Paths.get(entree).toAbsolutePath().normalize().toString().equals(exclu))
+                .collect(Collectors.joining(File.pathSeparator));
+        List<String> commande = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classpath, application.getName()));
+        commande.addAll(arguments);
+        File journal = JOURNAUX.resolve(nom + ".log").toFile();
+        return new ProcessBuilder(commande)
+                .redirectErrorStream(true)
+                .redirectOutput(journal)
+                .start();
+    }
+
+    private static void attendre(HttpClient client, Process processus, String url, String nom)
+            throws InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build();
+        long limite = System.nanoTime() + DEMARRAGE_MAX.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processus.isAlive()) {
+                throw new IllegalStateException(nom + " s'est arrêté au démarrage, voir "
+                        + JOURNAUX.resolve(nom + ".log"));
+            }
+            try {
+                HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+                if (reponse.statusCode() == 200 && !reponse.body().equals("false")) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Port pas encore ouvert
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(nom + " n'a pas démarré en " + DEMARRAGE_MAX.toSeconds() + " s");
+    }
+
+    private static String source(Class<?> application) {
+        try {
+            return Paths.get(application.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .toAbsolutePath().normalize().toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int portLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void arreter(Process processus) {
+        if (processus == null || !processus.isAlive()) {
+            return;
+        }
+        processus.destroy();
+        try {
+            if (!processus.waitFor(30, TimeUnit.SECONDS)) {
+                processus.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            processus.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
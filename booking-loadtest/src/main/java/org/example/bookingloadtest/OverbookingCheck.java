@@ -0,0 +1,102 @@
+package org.example.bookingloadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Relit après la mesure les réservations enregistrées par reservation-service et la capacité
+ * de chaque restaurant, puis compte les créneaux mesurés où les couverts actifs (réservations
+ * CONFIRMED ou PENDING dont la plage chevauche le créneau) dépassent la capacité totale.
+ */
+class OverbookingCheck {
+
+    private static final Set<String> ACTIVES = Set.of("CONFIRMED", "PENDING");
+
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String restaurantUrl;
+    private final String reservationUrl;
+    private final LoadTestOptions options;
+
+    OverbookingCheck(HttpClient client, String restaurantUrl, String reservationUrl, LoadTestOptions options) {
+        this.client = client;
+        this.restaurantUrl = restaurantUrl;
+        this.reservationUrl = reservationUrl;
+        this.options = options;
+    }
+
+    Resultat verifier(LocalDate premierJour) throws IOException, InterruptedException {
+        Map<Long, Integer> capacites = new HashMap<>();
+        for (JsonNode restaurant : lire(restaurantUrl + "/api/restaurants?fields=id,capaciteTotale")) {
+            JsonNode capacite = restaurant.get("capaciteTotale");
+            if (capacite != null && !capacite.isNull()) {
+                capacites.put(restaurant.get("id").asLong(), capacite.asInt());
+            }
+        }
+
+        long duree = Duration.ofMinutes(options.getDureeReservationMinutes()).toMinutes();
+        Resultat resultat = new Resultat();
+        for (long restaurant = 1; restaurant <= options.getRestaurants(); restaurant++) {
+            List<JsonNode> actives = new ArrayList<>();
+            for (JsonNode reservation : lire(reservationUrl + "/api/reservations/restaurant/" + restaurant)) {
+                if (ACTIVES.contains(reservation.path("status").asText())) {
+                    actives.add(reservation);
+                }
+            }
+            Integer capacite = capacites.get(restaurant);
+            for (int c = 0; c < options.getCreneaux(); c++) {
+                LocalDateTime creneau = BookingLoadDriver.creneau(premierJour, c);
+                int couverts = 0;
+                for (JsonNode reservation : actives) {
+                    LocalDateTime debut = LocalDateTime.parse(reservation.get("reservationDateTime").asText());
+                    if (Math.abs(Duration.between(debut, creneau).toMinutes()) >= duree) {
+                        continue;
+                    }
+                    couverts += reservation.get("numberOfGuests").asInt();
+                    if (debut.equals(creneau)) {
+                        resultat.enregistrees++;
+                    }
+                }
+                if (capacite != null && couverts > capacite) {
+                    resultat.creneauxSurreserves++;
+                    resultat.couvertsEnTrop += couverts - capacite;
+                }
+            }
+        }
+        return resultat;
+    }
+
+    private JsonNode lire(String url) throws IOException, InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(options.getDelaiSecondes()))
+                .build();
+        HttpResponse<String> reponse = client.send(requete, HttpResponse.BodyHandlers.ofString());
+        if (reponse.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " : HTTP " + reponse.statusCode());
+        }
+        return mapper.readTree(reponse.body());
+    }
+
+    static final class Resultat {
+        // Créneaux mesurés dont les couverts actifs dépassent la capacité du restaurant
+        int creneauxSurreserves;
+        int couvertsEnTrop;
+        // Réservations en base aux créneaux mesurés, à rapprocher des réponses 201
+        int enregistrees;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.bookingloadtest;
+
+import java.util.List;
+
+/**
+ * Les deux services sous test, démarrés par le banc ou déjà en place.
+ * La fermeture arrête ce que le banc a démarré.
+ */
+public interface Services extends AutoCloseable {
+
+    String restaurantUrl();
+
+    String reservationUrl();
+
+    @Override
+    void close();
+
+    // Profil h2 de chaque service, sur une base en mémoire neuve ; seuls les avertissements sont
+    // journalisés, y compris pour les paquets que application.properties met en INFO ou DEBUG
+    static List<String> arguments(String base, int port) {
+        return List.of(
+                "--server.port=" + port,
+                "--spring.profiles.active=h2",
+                "--spring.datasource.url=jdbc:h2:mem:" + base + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.springframework.cloud.openfeign=WARN");
+    }
+
+    static Services demarrer(LoadTestOptions options) throws Exception {
+        switch (options.getMode()) {
+            case "jvm":
+                return EmbeddedServices.demarrer();
+            case "processus":
+                return LocalProcessServices.demarrer();
+            default:
+                return new Services() {
+                    @Override
+                    public String restaurantUrl() {
+                        return options.getRestaurantUrl();
+                    }
+
+                    @Override
+                    public String reservationUrl() {
+                        return options.getReservationUrl();
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                };
+        }
+    }
+}
@@ -2,9 +2,11 @@ package org.example.reservationservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
 public class ReservationServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ReservationServiceApplication.class, args);
@@ -7,13 +7,16 @@ import org.example.reservationservice.enums.ReservationStatus;
 import org.example.reservationservice.repository.ReservationRepository;
 import org.example.reservationservice.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+// Jeu de données d'exemple ; le profil generator le remplace par SyntheticDataGenerator
 @Component
+@Profile("!generator")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -1,8 +1,33 @@
 package org.example.reservationservice.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import feign.AsyncFeign;
+import feign.Contract;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.Retryer;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
+import feign.http2client.Http2Client;
+import feign.optionals.OptionalDecoder;
+import org.example.reservationservice.service.AsyncRestaurantClient;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.FeignClientFactory;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class FeignConfig {
@@ -11,4 +36,46 @@ public class FeignConfig {
     public ErrorDecoder errorDecoder() {
         return new feign.codec.ErrorDecoder.Default();
     }
-}
\ No newline at end of file
+
+    // Décodeur par défaut de Spring Cloud OpenFeign, précédé de la décompression gzip
+    @Bean
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        return new GzipResponseDecoder(new OptionalDecoder(
+                new ResponseEntityDecoder(new SpringDecoder(messageConverters, customizers))));
+    }
+
+    // Utilisé par les encodeurs/décodeurs Feign comme par les contrôleurs de ce service
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // Réponses binaires par défaut entre services ; JSON reste accepté en repli
+    @Bean
+    public RequestInterceptor acceptCbor() {
+        return template -> template.header(HttpHeaders.ACCEPT, "application/cbor", "application/json;q=0.5");
+    }
+
+    // Variante asynchrone de RestaurantClient : même HttpClient JDK (connexions gardées ouvertes,
+    // HTTP/2), mêmes contrat, encodeur, décodeur et intercepteurs que le client déclaratif
+    @Bean
+    public AsyncRestaurantClient restaurantAsyncHttpClient(
+            ObjectProvider<HttpClient> httpClient,
+            FeignClientFactory feignClientFactory,
+            @Value("${restaurant.service.url}") String url,
+            @Value("${spring.cloud.openfeign.client.config.default.connect-timeout:1000}") long connectTimeout,
+            @Value("${spring.cloud.openfeign.client.config.default.read-timeout:2500}") long readTimeout) {
+        String contexte = "restaurant-service";
+        return AsyncFeign.builder()
+                .client(new Http2Client(httpClient.getIfAvailable(HttpClient::newHttpClient)))
+                .contract(feignClientFactory.getInstance(contexte, Contract.class))
+                .encoder(feignClientFactory.getInstance(contexte, Encoder.class))
+                .decoder(feignClientFactory.getInstance(contexte, Decoder.class))
+                .errorDecoder(errorDecoder())
+                .requestInterceptors(feignClientFactory.getInstances(contexte, RequestInterceptor.class).values())
+                .options(new Request.Options(connectTimeout, TimeUnit.MILLISECONDS, readTimeout, TimeUnit.MILLISECONDS, true))
+                .retryer(Retryer.NEVER_RETRY)
+                .target(AsyncRestaurantClient.class, url);
+    }
+}
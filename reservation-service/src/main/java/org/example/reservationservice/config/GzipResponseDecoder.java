@@ -0,0 +1,60 @@
+package org.example.reservationservice.config;
+
+import feign.Response;
+import feign.codec.Decoder;
+import org.springframework.http.HttpHeaders;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Décompresse les réponses gzip avant le décodeur Spring. Les clients Feign demandent gzip
+ * (spring.cloud.openfeign.compression.response.enabled) ; Http2Client (HttpClient JDK) rend le
+ * corps compressé, alors que Client.Default (HttpURLConnection) le décompresse déjà en gardant
+ * l'en-tête Content-Encoding. Le corps n'est donc décompressé que s'il commence bien par la
+ * signature gzip, quel que soit le transport.
+ */
+public class GzipResponseDecoder implements Decoder {
+
+    private static final int SIGNATURE_1 = 0x1f;
+    private static final int SIGNATURE_2 = 0x8b;
+
+    private final Decoder delegate;
+
+    public GzipResponseDecoder(Decoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        Collection<String> encoding = response.headers().get(HttpHeaders.CONTENT_ENCODING);
+        if (response.body() == null || encoding == null || !encoding.contains("gzip")) {
+            return delegate.decode(response, type);
+        }
+        InputStream corps = new BufferedInputStream(response.body().asInputStream());
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(response.headers());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        try (Response decompressed = response.toBuilder()
+                .headers(headers)
+                .body(estCompresse(corps) ? new GZIPInputStream(corps) : corps, null)
+                .build()) {
+            return delegate.decode(decompressed, type);
+        }
+    }
+
+    // Ni JSON ni CBOR ne peuvent commencer par 0x1f 0x8b
+    private static boolean estCompresse(InputStream corps) throws IOException {
+        corps.mark(2);
+        boolean gzip = corps.read() == SIGNATURE_1 && corps.read() == SIGNATURE_2;
+        corps.reset();
+        return gzip;
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.reservationservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.enums.ReservationStatus;
+import org.example.reservationservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Utilisateurs et réservations synthétiques à grande échelle (profil generator), à la place de
+ * DataInitializer. Les restaurants réservés suivent une loi de Zipf sur les identifiants
+ * 1..generateur.restaurants (le catalogue généré côté restaurant-service), les heures se
+ * concentrent sur les services du midi et du soir, et le statut dépend de la date.
+ * Les réservations à venir confirmées ou en attente tiennent dans la capacité de chaque restaurant,
+ * sur chaque créneau de 15 minutes de leur durée ; celles qui la dépasseraient sont annulées.
+ * Tout dépend de generateur.graine ; insertion par lots JDBC.
+ */
+@Component
+@Profile("generator")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String INSERTION_UTILISATEUR = "INSERT INTO users (user_id, first_name, last_name, email, "
+            + "phone, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERTION_RESERVATION = "INSERT INTO reservations (restaurant_id, user_id, "
+            + "customer_name, customer_email, customer_phone, reservation_date_time, number_of_guests, status, "
+            + "special_requests, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] PRENOMS = {
+            "Mehdi", "Fatima", "Karim", "Amina", "Youssef", "Leila", "Hassan", "Salma", "Omar", "Nadia",
+            "Rachid", "Khadija", "Samir", "Imane", "Adil", "Zineb", "Hamza", "Sara", "Anas", "Meryem"
+    };
+    private static final String[] NOMS = {
+            "Alaoui", "Zahra", "Benjelloun", "El Fassi", "Mansouri", "Chraibi", "Bennani", "Tazi",
+            "Berrada", "Idrissi", "Lahlou", "Sebti", "Kettani", "Amrani", "Cherkaoui", "Filali"
+    };
+    // Créneaux de 15 minutes de 11:30 à 23:00 ; pics à 12:30 et 20:15
+    private static final int PREMIER_CRENEAU = 11 * 60 + 30;
+    private static final int[] POIDS_CRENEAUX = {
+            2, 4, 8, 12, 14, 12, 9, 6, 3, 1,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            2, 4, 7, 10, 14, 18, 20, 18, 14, 10, 7, 5, 3, 2, 1, 1, 1, 1
+    };
+    private static final int[] COUVERTS = {1, 2, 3, 4, 5, 6, 8, 10, 12};
+    private static final int[] POIDS_COUVERTS = {4, 46, 10, 24, 5, 6, 3, 1, 1};
+    private static final String[] DEMANDES = {
+            "Table en terrasse", "Anniversaire", "Chaise haute pour enfant", "Allergie aux fruits à coque",
+            "Table calme, repas d'affaires"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final long graine;
+    private final int nombreUtilisateurs;
+    private final long nombreReservations;
+    private final int nombreRestaurants;
+    private final double exposantZipf;
+    private final int joursPasses;
+    private final int joursAVenir;
+    private final int tailleLot;
+    private final int creneauxParReservation;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  UserRepository userRepository,
+                                  @Value("${generateur.graine:42}") long graine,
+                                  @Value("${generateur.utilisateurs:100000}") int nombreUtilisateurs,
+                                  @Value("${generateur.reservations:2000000}") long nombreReservations,
+                                  @Value("${generateur.restaurants:10000}") int nombreRestaurants,
+                                  @Value("${generateur.zipf-exposant:1.0}") double exposantZipf,
+                                  @Value("${generateur.jours-passes:365}") int joursPasses,
+                                  @Value("${generateur.jours-a-venir:60}") int joursAVenir,
+                                  @Value("${generateur.taille-lot:1000}") int tailleLot,
+                                  @Value("${reservation.slots.duration-minutes:120}") int dureeReservation) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.graine = graine;
+        this.nombreUtilisateurs = nombreUtilisateurs;
+        this.nombreReservations = nombreReservations;
+        this.nombreRestaurants = nombreRestaurants;
+        this.exposantZipf = exposantZipf;
+        this.joursPasses = joursPasses;
+        this.joursAVenir = joursAVenir;
+        this.tailleLot = tailleLot;
+        this.creneauxParReservation = (dureeReservation + 14) / 15;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (userRepository.count() > 0) {
+            log.info("La base contient déjà {} utilisateurs : génération ignorée", userRepository.count());
+            return;
+        }
+        long debut = System.currentTimeMillis();
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        long[] utilisateurs = insererUtilisateurs(aleatoire.split());
+        long reservations = insererReservations(aleatoire.split(), utilisateurs);
+        log.info("Génération terminée : {} utilisateurs, {} réservations en {} ms (graine {})",
+                utilisateurs.length, reservations, System.currentTimeMillis() - debut, graine);
+    }
+
+    private long[] insererUtilisateurs(SplittableRandom aleatoire) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Object[]> lot = new ArrayList<>(tailleLot);
+        for (int i = 1; i <= nombreUtilisateurs; i++) {
+            String prenom = PRENOMS[aleatoire.nextInt(PRENOMS.length)];
+            String nom = NOMS[aleatoire.nextInt(NOMS.length)];
+            lot.add(new Object[]{
+                    String.format("client%07d", i),
+                    prenom,
+                    nom,
+                    (prenom + "." + nom.replace(" ", "")).toLowerCase() + i + "@email.com",
+                    String.format("+2126%08d", aleatoire.nextInt(100_000_000)),
+                    Timestamp.valueOf(maintenant.minusDays(aleatoire.nextInt(joursPasses + 365)))
+            });
+            if (lot.size() == tailleLot) {
+                inserer(INSERTION_UTILISATEUR, lot);
+            }
+        }
+        inserer(INSERTION_UTILISATEUR, lot);
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long insererReservations(SplittableRandom aleatoire, long[] utilisateurs) {
+        // Coordonnées de chaque client relues pour dénormaliser nom, email et téléphone
+        List<String[]> clients = jdbcTemplate.query("SELECT first_name, last_name, email, phone FROM users ORDER BY id",
+                (ligne, rang) -> new String[]{
+                        ligne.getString(1) + " " + ligne.getString(2), ligne.getString(3), ligne.getString(4)});
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDate premierJour = maintenant.toLocalDate().minusDays(joursPasses);
+        Zipf restaurants = new Zipf(nombreRestaurants, exposantZipf, aleatoire);
+        Integer[] capacites = new Integer[nombreRestaurants];
+        for (int rang = 0; rang < nombreRestaurants; rang++) {
+            capacites[rang] = capacite(graine, rang);
+        }
+        // Couverts déjà placés, par restaurant et par jour, sur les créneaux de 15 minutes depuis PREMIER_CRENEAU
+        Map<Long, short[]> occupation = new HashMap<>();
+        List<Object[]> lot = new ArrayList<>(tailleLot);
+        long total = 0;
+        for (long n = 0; n < nombreReservations; n++) {
+            int client = aleatoire.nextInt(utilisateurs.length);
+            int creneau = choisir(POIDS_CRENEAUX, aleatoire);
+            int minute = PREMIER_CRENEAU + 15 * creneau;
+            int jour = aleatoire.nextInt(joursPasses + joursAVenir);
+            LocalDateTime date = premierJour.plusDays(jour).atTime(minute / 60, minute % 60);
+            LocalDateTime creation = date.minusHours(aleatoire.nextInt(1, 30 * 24));
+            if (creation.isAfter(maintenant)) {
+                creation = maintenant.minusMinutes(aleatoire.nextInt(1, 24 * 60));
+            }
+            ReservationStatus statut = statut(date.isBefore(maintenant), aleatoire);
+            int restaurant = restaurants.tirer(aleatoire);
+            int couverts = COUVERTS[choisir(POIDS_COUVERTS, aleatoire)];
+            // Un créneau de la durée est complet : la réservation est gardée, mais annulée
+            if ((statut == ReservationStatus.CONFIRMED || statut == ReservationStatus.PENDING)
+                    && !placer(occupation, capacites[restaurant], restaurant, jour, creneau, couverts)) {
+                statut = ReservationStatus.CANCELLED;
+            }
+
+            lot.add(new Object[]{
+                    restaurant + 1L,
+                    utilisateurs[client],
+                    clients.get(client)[0],
+                    clients.get(client)[1],
+                    clients.get(client)[2],
+                    Timestamp.valueOf(date),
+                    couverts,
+                    statut.name(),
+                    aleatoire.nextInt(8) == 0 ? DEMANDES[aleatoire.nextInt(DEMANDES.length)] : null,
+                    Timestamp.valueOf(creation),
+                    Timestamp.valueOf(statut == ReservationStatus.CONFIRMED || statut == ReservationStatus.PENDING
+                            ? creation : date)
+            });
+            if (lot.size() == tailleLot) {
+                total += inserer(INSERTION_RESERVATION, lot);
+                if (total % (100L * tailleLot) == 0) {
+                    log.info("{} réservations insérées", total);
+                }
+            }
+        }
+        return total + inserer(INSERTION_RESERVATION, lot);
+    }
+
+    private boolean placer(Map<Long, short[]> occupation, Integer capacite, int restaurant, int jour, int creneau,
+                           int couverts) {
+        if (capacite == null) {
+            return true;
+        }
+        // Les derniers services débordent après minuit : leurs créneaux restent sur le jour de la réservation
+        short[] creneaux = occupation.computeIfAbsent((long) restaurant * (joursPasses + joursAVenir) + jour,
+                cle -> new short[POIDS_CRENEAUX.length + creneauxParReservation - 1]);
+        for (int c = creneau; c < creneau + creneauxParReservation; c++) {
+            if (creneaux[c] + couverts > capacite) {
+                return false;
+            }
+        }
+        for (int c = creneau; c < creneau + creneauxParReservation; c++) {
+            creneaux[c] += couverts;
+        }
+        return true;
+    }
+
+    // Même formule que le générateur de restaurant-service, où le restaurant de rang donné reçoit cette capacité
+    private static Integer capacite(long graine, int rang) {
+        SplittableRandom tirage = new SplittableRandom(graine * 1_000_003L + rang);
+        return tirage.nextInt(20) == 0 ? null : tirage.nextInt(20, 150);
+    }
+
+    private static ReservationStatus statut(boolean passee, SplittableRandom aleatoire) {
+        int tirage = aleatoire.nextInt(100);
+        if (passee) {
+            return tirage < 82 ? ReservationStatus.COMPLETED
+                    : tirage < 94 ? ReservationStatus.CANCELLED : ReservationStatus.NO_SHOW;
+        }
+        return tirage < 85 ? ReservationStatus.CONFIRMED
+                : tirage < 93 ? ReservationStatus.PENDING : ReservationStatus.CANCELLED;
+    }
+
+    private int inserer(String insertion, List<Object[]> lot) {
+        if (lot.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(insertion, lot));
+        int taille = lot.size();
+        lot.clear();
+        return taille;
+    }
+
+    private static int choisir(int[] poids, SplittableRandom aleatoire) {
+        int tirage = aleatoire.nextInt(Arrays.stream(poids).sum());
+        for (int i = 0; i < poids.length; i++) {
+            tirage -= poids[i];
+            if (tirage < 0) {
+                return i;
+            }
+        }
+        return poids.length - 1;
+    }
+
+    // Loi de Zipf sur n éléments, rangs attribués par une permutation aléatoire
+    private static final class Zipf {
+        private final double[] cumul;
+        private final int[] elements;
+
+        Zipf(int n, double exposant, SplittableRandom aleatoire) {
+            cumul = new double[n];
+            elements = new int[n];
+            double somme = 0;
+            for (int rang = 0; rang < n; rang++) {
+                somme += 1 / Math.pow(rang + 1, exposant);
+                cumul[rang] = somme;
+                elements[rang] = rang;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = aleatoire.nextInt(i + 1);
+                int element = elements[i];
+                elements[i] = elements[j];
+                elements[j] = element;
+            }
+        }
+
+        int tirer(SplittableRandom aleatoire) {
+            int rang = Arrays.binarySearch(cumul, aleatoire.nextDouble(cumul[cumul.length - 1]));
+            return elements[rang >= 0 ? rang : Math.min(-rang - 1, cumul.length - 1)];
+        }
+    }
+}
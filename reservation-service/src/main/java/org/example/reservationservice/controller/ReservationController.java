@@ -5,6 +5,8 @@ import org.example.reservationservice.dto.ReservationRequestDTO;
 import org.example.reservationservice.dto.ReservationResponseDTO;
 import org.example.reservationservice.enums.ReservationStatus;
 import org.example.reservationservice.service.ReservationService;
+import org.example.reservationservice.service.RestaurantBusyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -30,6 +32,10 @@ public class ReservationController {
             return ResponseEntity.badRequest().body(createErrorResponse("VALIDATION_ERROR", e.getMessage()));
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(createErrorResponse("BUSINESS_ERROR", e.getMessage()));
+        } catch (RestaurantBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(createErrorResponse("SERVICE_BUSY", e.getMessage()));
         }
     }
 
@@ -69,6 +75,10 @@ public class ReservationController {
             return ResponseEntity.badRequest().body(createErrorResponse("VALIDATION_ERROR", e.getMessage()));
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(createErrorResponse("BUSINESS_ERROR", e.getMessage()));
+        } catch (RestaurantBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(createErrorResponse("SERVICE_BUSY", e.getMessage()));
         }
     }
 
@@ -83,6 +93,10 @@ public class ReservationController {
             return ResponseEntity.notFound().build();
         } catch (IllegalStateException e) {
             return ResponseEntity.badRequest().body(createErrorResponse("BUSINESS_ERROR", e.getMessage()));
+        } catch (RestaurantBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(createErrorResponse("SERVICE_BUSY", e.getMessage()));
         }
     }
 
@@ -0,0 +1,27 @@
+package org.example.reservationservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Réponse de GET /api/restaurants/changes (noms des champs de restaurant-service)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChangesDTO {
+    private long version;
+    private boolean complet; // tout le catalogue : un restaurant absent de la liste n'existe plus
+    private List<Restaurant> restaurants;
+    private List<Long> supprimes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Restaurant {
+        private Long id;
+        private Integer capaciteTotale;
+        private String heureOuverture;
+        private String heureFermeture;
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.reservationservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldDTO {
+    private Long reservationId;
+    private LocalDateTime dateTime;
+    private Integer guests;
+}
@@ -0,0 +1,38 @@
+package org.example.reservationservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Couverts occupés par restaurant sur un créneau de slot-minutes, tenus par SlotCapacity
+@Entity
+@Table(name = "reservation_slots")
+@IdClass(ReservationSlot.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSlot {
+
+    @Id
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Id
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    @Column(name = "booked_seats", nullable = false)
+    private int bookedSeats;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long restaurantId;
+        private LocalDateTime slotStart;
+    }
+}
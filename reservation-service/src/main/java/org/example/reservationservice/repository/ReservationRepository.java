@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,7 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findByUserId(Long userId);
     List<Reservation> findByRestaurantId(Long restaurantId);
     List<Reservation> findByStatus(ReservationStatus status);
+    List<Reservation> findByStatusInAndReservationDateTimeAfter(Collection<ReservationStatus> statuses, LocalDateTime after);
 
     @Query("SELECT r FROM Reservation r WHERE r.user.id = :userId AND r.reservationDateTime > :now ORDER BY r.reservationDateTime ASC")
     List<Reservation> findUpcomingByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
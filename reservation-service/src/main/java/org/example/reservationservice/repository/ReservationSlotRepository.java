@@ -0,0 +1,71 @@
+package org.example.reservationservice.repository;
+import org.example.reservationservice.entity.ReservationSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReservationSlotRepository extends JpaRepository<ReservationSlot, ReservationSlot.Key> {
+
+    @Query("SELECT s.slotStart FROM ReservationSlot s "
+            + "WHERE s.restaurantId = :restaurantId AND s.slotStart BETWEEN :first AND :last")
+    List<LocalDateTime> findSlotStarts(
+            @Param("restaurantId") Long restaurantId,
+            @Param("first") LocalDateTime first,
+            @Param("last") LocalDateTime last);
+
+    @Query("SELECT COALESCE(MAX(s.bookedSeats), 0) FROM ReservationSlot s "
+            + "WHERE s.restaurantId = :restaurantId AND s.slotStart BETWEEN :first AND :last")
+    int maxBookedSeats(
+            @Param("restaurantId") Long restaurantId,
+            @Param("first") LocalDateTime first,
+            @Param("last") LocalDateTime last);
+
+    // Ligne créée à zéro si absente ; sinon laissée telle quelle. Pas d'INSERT IGNORE : sur un doublon
+    // InnoDB y pose un verrou partagé que holdSeats doit ensuite convertir, d'où des interblocages
+    // entre réservations concurrentes du même créneau. Ici le doublon est verrouillé en exclusif.
+    @Modifying
+    @Query(value = "INSERT INTO reservation_slots (restaurant_id, slot_start, booked_seats) VALUES (:restaurantId, :slot, 0) "
+            + "ON DUPLICATE KEY UPDATE booked_seats = booked_seats",
+            nativeQuery = true)
+    void createSlot(@Param("restaurantId") Long restaurantId, @Param("slot") LocalDateTime slot);
+
+    // Une seule instruction pour tous les créneaux : le nombre de lignes modifiées dit s'il restait la place partout
+    @Modifying
+    @Query("UPDATE ReservationSlot s SET s.bookedSeats = s.bookedSeats + :guests "
+            + "WHERE s.restaurantId = :restaurantId AND s.slotStart BETWEEN :first AND :last "
+            + "AND s.bookedSeats + :guests <= :capacity")
+    int holdSeats(
+            @Param("restaurantId") Long restaurantId,
+            @Param("first") LocalDateTime first,
+            @Param("last") LocalDateTime last,
+            @Param("guests") int guests,
+            @Param("capacity") int capacity);
+
+    @Modifying
+    @Query("UPDATE ReservationSlot s SET s.bookedSeats = s.bookedSeats + :guests "
+            + "WHERE s.restaurantId = :restaurantId AND s.slotStart BETWEEN :first AND :last")
+    int addSeats(
+            @Param("restaurantId") Long restaurantId,
+            @Param("first") LocalDateTime first,
+            @Param("last") LocalDateTime last,
+            @Param("guests") int guests);
+
+    @Modifying
+    @Query("UPDATE ReservationSlot s SET s.bookedSeats = CASE WHEN s.bookedSeats > :guests THEN s.bookedSeats - :guests ELSE 0 END "
+            + "WHERE s.restaurantId = :restaurantId AND s.slotStart BETWEEN :first AND :last")
+    int releaseSeats(
+            @Param("restaurantId") Long restaurantId,
+            @Param("first") LocalDateTime first,
+            @Param("last") LocalDateTime last,
+            @Param("guests") int guests);
+
+    @Modifying
+    @Query("DELETE FROM ReservationSlot s WHERE s.slotStart < :before")
+    int deleteBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,21 @@
+package org.example.reservationservice.service;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Lectures de RestaurantClient sans bloquer l'appelant, construites par FeignConfig
+public interface AsyncRestaurantClient {
+
+    @GetMapping("/api/restaurants/{id}/availability")
+    CompletableFuture<Map<String, Object>> checkAvailabilityAsync(
+            @PathVariable("id") Long restaurantId,
+            @RequestParam("dateTime") String dateTime,
+            @RequestParam("guests") Integer guests);
+
+    @GetMapping("/api/restaurants/{id}/exists")
+    CompletableFuture<Boolean> restaurantExistsAsync(@PathVariable("id") Long restaurantId);
+}
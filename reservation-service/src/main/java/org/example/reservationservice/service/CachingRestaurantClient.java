@@ -0,0 +1,147 @@
+package org.example.reservationservice.service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.reservationservice.dto.RestaurantChangesDTO;
+import org.example.reservationservice.dto.SeatHoldDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RestaurantClient avec un cache borné (éviction par taille) devant les lectures :
+ * existence des restaurants, positive comme négative, et réponses de disponibilité à TTL court.
+ * Les prises et libérations de places et le flux de changements passent toujours à distance.
+ * Les variantes asynchrones partagent les mêmes caches. Les erreurs ne sont pas mises en cache.
+ * Succès et échecs sont publiés dans les métriques cache.gets
+ * (cache=restaurant.exists / restaurant.availability). Placé sous FallbackRestaurantClient, il ne
+ * voit jamais les réponses de repli.
+ */
+@Component("cachingRestaurantClient")
+public class CachingRestaurantClient implements RestaurantClient, AsyncRestaurantClient {
+
+    private final RestaurantClient delegate;
+    private final AsyncRestaurantClient asyncDelegate;
+    private final Cache<Long, Boolean> exists;
+    private final Cache<AvailabilityKey, Map<String, Object>> availability;
+
+    public CachingRestaurantClient(
+            @Qualifier("resilientRestaurantClient") RestaurantClient delegate,
+            @Qualifier("resilientRestaurantClient") AsyncRestaurantClient asyncDelegate,
+            MeterRegistry meterRegistry,
+            @Value("${restaurant.client.cache.exists.ttl:10m}") Duration existsTtl,
+            @Value("${restaurant.client.cache.exists.negative-ttl:30s}") Duration absentTtl,
+            @Value("${restaurant.client.cache.exists.maximum-size:10000}") long existsMaximumSize,
+            @Value("${restaurant.client.cache.availability.ttl:2s}") Duration availabilityTtl,
+            @Value("${restaurant.client.cache.availability.maximum-size:10000}") long availabilityMaximumSize) {
+        this.delegate = delegate;
+        this.asyncDelegate = asyncDelegate;
+        this.exists = Caffeine.newBuilder()
+                .maximumSize(existsMaximumSize)
+                .expireAfter(new ExistenceExpiry(existsTtl, absentTtl))
+                .recordStats()
+                .build();
+        this.availability = Caffeine.newBuilder()
+                .maximumSize(availabilityMaximumSize)
+                .expireAfterWrite(availabilityTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, exists, "restaurant.exists");
+        CaffeineCacheMetrics.monitor(meterRegistry, availability, "restaurant.availability");
+    }
+
+    @Override
+    public Map<String, Object> checkAvailability(Long restaurantId, String dateTime, Integer guests) {
+        return availability.get(new AvailabilityKey(restaurantId, dateTime, guests),
+                key -> delegate.checkAvailability(restaurantId, dateTime, guests));
+    }
+
+    @Override
+    public Map<String, Object> reserveSeats(Long restaurantId, SeatHoldDTO hold) {
+        return delegate.reserveSeats(restaurantId, hold);
+    }
+
+    @Override
+    public Map<String, Object> releaseSeats(Long restaurantId, SeatHoldDTO hold) {
+        return delegate.releaseSeats(restaurantId, hold);
+    }
+
+    // Une réponse nulle n'est pas mise en cache
+    @Override
+    public Boolean restaurantExists(Long restaurantId) {
+        return exists.get(restaurantId, delegate::restaurantExists);
+    }
+
+    @Override
+    public RestaurantChangesDTO getChanges(long since) {
+        return delegate.getChanges(since);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> checkAvailabilityAsync(Long restaurantId, String dateTime,
+                                                                         Integer guests) {
+        AvailabilityKey key = new AvailabilityKey(restaurantId, dateTime, guests);
+        Map<String, Object> cached = availability.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return asyncDelegate.checkAvailabilityAsync(restaurantId, dateTime, guests)
+                .thenApply(response -> store(availability, key, response));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> restaurantExistsAsync(Long restaurantId) {
+        Boolean cached = exists.getIfPresent(restaurantId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return asyncDelegate.restaurantExistsAsync(restaurantId)
+                .thenApply(response -> store(exists, restaurantId, response));
+    }
+
+    private static <K, V> V store(Cache<K, V> cache, K key, V value) {
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    @lombok.Value
+    private static class AvailabilityKey {
+        Long restaurantId;
+        String dateTime;
+        Integer guests;
+    }
+
+    // Un restaurant existant le reste en général ; un identifiant inconnu peut être créé sous peu
+    private static final class ExistenceExpiry implements Expiry<Long, Boolean> {
+        private final long presentNanos;
+        private final long absentNanos;
+
+        private ExistenceExpiry(Duration presentTtl, Duration absentTtl) {
+            this.presentNanos = presentTtl.toNanos();
+            this.absentNanos = absentTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long restaurantId, Boolean exists, long currentTime) {
+            return exists ? presentNanos : absentNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long restaurantId, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(restaurantId, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long restaurantId, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.reservationservice.service;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.dto.RestaurantChangesDTO;
+import org.example.reservationservice.dto.SeatHoldDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * RestaurantClient injecté par les services, au-dessus du cache et du disjoncteur :
+ * CachingRestaurantClient puis ResilientRestaurantClient. Seul un circuit ouvert (service jugé
+ * en panne) bascule sur RestaurantFallback ; ces réponses locales ne passent donc jamais par le
+ * cache. Un cloisonnement plein (service sain mais saturé) lève RestaurantBusyException, sauf
+ * pour les libérations, déjà validées et simplement rejouées plus tard.
+ */
+@Component
+@Primary
+@Slf4j
+public class FallbackRestaurantClient implements RestaurantClient, AsyncRestaurantClient {
+
+    private final RestaurantClient delegate;
+    private final AsyncRestaurantClient asyncDelegate;
+    private final RestaurantFallback fallback;
+
+    public FallbackRestaurantClient(
+            @Qualifier("cachingRestaurantClient") RestaurantClient delegate,
+            @Qualifier("cachingRestaurantClient") AsyncRestaurantClient asyncDelegate,
+            RestaurantFallback fallback) {
+        this.delegate = delegate;
+        this.asyncDelegate = asyncDelegate;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Map<String, Object> checkAvailability(Long restaurantId, String dateTime, Integer guests) {
+        try {
+            Map<String, Object> response = delegate.checkAvailability(restaurantId, dateTime, guests);
+            recordAvailability(restaurantId, dateTime, response);
+            return response;
+        } catch (CallNotPermittedException e) {
+            return fallback.checkAvailability(restaurantId, dateTime, guests);
+        } catch (BulkheadFullException e) {
+            throw busy();
+        }
+    }
+
+    @Override
+    public Map<String, Object> reserveSeats(Long restaurantId, SeatHoldDTO hold) {
+        try {
+            Map<String, Object> response = delegate.reserveSeats(restaurantId, hold);
+            fallback.recordReserved(restaurantId, hold, response);
+            return response;
+        } catch (CallNotPermittedException e) {
+            log.warn("Réservation {} : {}, décision locale", hold.getReservationId(), e.getMessage());
+            return fallback.reserveSeats(restaurantId, hold);
+        } catch (BulkheadFullException e) {
+            throw busy();
+        }
+    }
+
+    @Override
+    public Map<String, Object> releaseSeats(Long restaurantId, SeatHoldDTO hold) {
+        try {
+            return delegate.releaseSeats(restaurantId, hold);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            return fallback.releaseSeats(restaurantId, hold);
+        }
+    }
+
+    @Override
+    public Boolean restaurantExists(Long restaurantId) {
+        try {
+            return delegate.restaurantExists(restaurantId);
+        } catch (CallNotPermittedException e) {
+            return fallback.restaurantExists(restaurantId);
+        } catch (BulkheadFullException e) {
+            throw busy();
+        }
+    }
+
+    // Pas de repli : la réplique garde sa dernière copie et réessaie au prochain passage
+    @Override
+    public RestaurantChangesDTO getChanges(long since) {
+        return delegate.getChanges(since);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> checkAvailabilityAsync(Long restaurantId, String dateTime,
+                                                                         Integer guests) {
+        return asyncDelegate.checkAvailabilityAsync(restaurantId, dateTime, guests)
+                .thenApply(response -> {
+                    recordAvailability(restaurantId, dateTime, response);
+                    return response;
+                })
+                .exceptionallyCompose(e -> orFallback(e,
+                        () -> fallback.checkAvailability(restaurantId, dateTime, guests)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> restaurantExistsAsync(Long restaurantId) {
+        return asyncDelegate.restaurantExistsAsync(restaurantId)
+                .exceptionallyCompose(e -> orFallback(e, () -> fallback.restaurantExists(restaurantId)));
+    }
+
+    private static <T> CompletableFuture<T> orFallback(Throwable e, Supplier<T> fallbackResponse) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof CallNotPermittedException) {
+            return CompletableFuture.completedFuture(fallbackResponse.get());
+        }
+        if (cause instanceof BulkheadFullException) {
+            return CompletableFuture.failedFuture(busy());
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    private static RestaurantBusyException busy() {
+        return new RestaurantBusyException("restaurant-service saturé, réessayer dans un instant");
+    }
+
+    private void recordAvailability(Long restaurantId, String dateTime, Map<String, Object> response) {
+        try {
+            fallback.recordAvailability(restaurantId, LocalDateTime.parse(dateTime), response);
+        } catch (RuntimeException e) {
+            // Horaire illisible : rien à retenir
+        }
+    }
+}
@@ -3,6 +3,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.reservationservice.dto.ReservationRequestDTO;
 import org.example.reservationservice.dto.ReservationResponseDTO;
+import org.example.reservationservice.dto.SeatHoldDTO;
 import org.example.reservationservice.entity.Reservation;
 import org.example.reservationservice.entity.User;
 import org.example.reservationservice.enums.ReservationStatus;
@@ -10,11 +11,15 @@ import org.example.reservationservice.repository.ReservationRepository;
 import org.example.reservationservice.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +30,9 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
     private final RestaurantClient restaurantClient;
+    private final AsyncRestaurantClient asyncRestaurantClient;
+    private final RestaurantReplica restaurantReplica;
+    private final SlotCapacity slotCapacity;
 
     @Transactional
     public ReservationResponseDTO createReservation(ReservationRequestDTO requestDTO) {
@@ -33,17 +41,27 @@ public class ReservationService {
         // Validation
         validateReservationRequest(requestDTO);
 
+        // Restaurant vérifié sur la réplique locale ; s'il lui est inconnu, restaurant-service est
+        // interrogé pendant la lecture de l'utilisateur
+        RestaurantReplica.Verdict verdict = restaurantReplica.check(requestDTO.getRestaurantId(),
+                requestDTO.getReservationDateTime(), requestDTO.getNumberOfGuests());
+        CompletableFuture<Boolean> restaurantFound = verdict == RestaurantReplica.Verdict.UNKNOWN
+                ? restaurantExists(requestDTO.getRestaurantId())
+                : CompletableFuture.completedFuture(true);
+
         // Vérifier l'utilisateur
         User user = userRepository.findById(requestDTO.getUserId())
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé"));
 
         // Vérifier le restaurant
-        if (!restaurantExists(requestDTO.getRestaurantId())) {
+        if (!join(restaurantFound)) {
             throw new IllegalArgumentException("Restaurant non trouvé");
         }
-
-        // Vérifier la disponibilité
-        if (!checkAvailability(requestDTO)) {
+        if (verdict == RestaurantReplica.Verdict.CLOSED || verdict == RestaurantReplica.Verdict.INSUFFICIENT_CAPACITY) {
+            throw new IllegalStateException("Restaurant non disponible");
+        }
+        if (!slotCapacity.hasRoom(requestDTO.getRestaurantId(), requestDTO.getReservationDateTime(),
+                requestDTO.getNumberOfGuests())) {
             throw new IllegalStateException("Restaurant non disponible");
         }
 
@@ -61,6 +79,20 @@ public class ReservationService {
                 .build();
 
         Reservation savedReservation = reservationRepository.save(reservation);
+
+        // Réserver les places auprès du registre de restaurant-service ; rendues si la transaction échoue
+        Long reservationId = savedReservation.getId();
+        onTransactionEnd(() -> { }, () -> releaseSeats(requestDTO.getRestaurantId(), reservationId));
+        if (!reserveSeats(reservationId, requestDTO.getRestaurantId(),
+                requestDTO.getReservationDateTime(), requestDTO.getNumberOfGuests())) {
+            throw new IllegalStateException("Restaurant non disponible");
+        }
+
+        // Compteur local des créneaux en dernier : ses lignes ne restent verrouillées que jusqu'au commit
+        if (!slotCapacity.hold(requestDTO.getRestaurantId(), requestDTO.getReservationDateTime(),
+                requestDTO.getNumberOfGuests())) {
+            throw new IllegalStateException("Restaurant non disponible");
+        }
         return convertToDTO(savedReservation);
     }
 
@@ -100,6 +132,24 @@ public class ReservationService {
 
         validateReservationRequest(requestDTO);
 
+        // Déplacer les places si l'horaire ou le nombre d'invités change
+        LocalDateTime previousDateTime = reservation.getReservationDateTime();
+        Integer previousGuests = reservation.getNumberOfGuests();
+        if (holdsSeats(reservation.getStatus())
+                && (!previousDateTime.equals(requestDTO.getReservationDateTime())
+                || !previousGuests.equals(requestDTO.getNumberOfGuests()))) {
+            if (!reserveSeats(id, reservation.getRestaurantId(),
+                    requestDTO.getReservationDateTime(), requestDTO.getNumberOfGuests())) {
+                throw new IllegalStateException("Restaurant non disponible");
+            }
+            Long restaurantId = reservation.getRestaurantId();
+            onTransactionEnd(() -> { }, () -> restoreSeats(id, restaurantId, previousDateTime, previousGuests));
+            slotCapacity.release(restaurantId, previousDateTime, previousGuests);
+            if (!slotCapacity.hold(restaurantId, requestDTO.getReservationDateTime(), requestDTO.getNumberOfGuests())) {
+                throw new IllegalStateException("Restaurant non disponible");
+            }
+        }
+
         reservation.setCustomerName(requestDTO.getCustomerName());
         reservation.setCustomerEmail(requestDTO.getCustomerEmail());
         reservation.setCustomerPhone(requestDTO.getCustomerPhone());
@@ -122,14 +172,25 @@ public class ReservationService {
 
         reservation.setStatus(ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        slotCapacity.release(reservation.getRestaurantId(), reservation.getReservationDateTime(),
+                reservation.getNumberOfGuests());
+
+        Long restaurantId = reservation.getRestaurantId();
+        onTransactionEnd(() -> releaseSeats(restaurantId, id), () -> { });
     }
 
     @Transactional
     public void deleteReservation(Long id) {
-        if (!reservationRepository.existsById(id)) {
-            throw new IllegalArgumentException("Réservation non trouvée");
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Réservation non trouvée"));
+        reservationRepository.delete(reservation);
+        if (holdsSeats(reservation.getStatus())) {
+            slotCapacity.release(reservation.getRestaurantId(), reservation.getReservationDateTime(),
+                    reservation.getNumberOfGuests());
         }
-        reservationRepository.deleteById(id);
+
+        Long restaurantId = reservation.getRestaurantId();
+        onTransactionEnd(() -> releaseSeats(restaurantId, id), () -> { });
     }
 
     @Transactional
@@ -137,6 +198,19 @@ public class ReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Réservation non trouvée"));
 
+        Long restaurantId = reservation.getRestaurantId();
+        if (holdsSeats(reservation.getStatus()) && !holdsSeats(status)) {
+            onTransactionEnd(() -> releaseSeats(restaurantId, id), () -> { });
+            slotCapacity.release(restaurantId, reservation.getReservationDateTime(), reservation.getNumberOfGuests());
+        } else if (!holdsSeats(reservation.getStatus()) && holdsSeats(status)) {
+            onTransactionEnd(() -> { }, () -> releaseSeats(restaurantId, id));
+            if (!reserveSeats(id, restaurantId, reservation.getReservationDateTime(), reservation.getNumberOfGuests())
+                    || !slotCapacity.hold(restaurantId, reservation.getReservationDateTime(),
+                    reservation.getNumberOfGuests())) {
+                throw new IllegalStateException("Restaurant non disponible");
+            }
+        }
+
         reservation.setStatus(status);
         Reservation updatedReservation = reservationRepository.save(reservation);
         return convertToDTO(updatedReservation);
@@ -152,37 +226,96 @@ public class ReservationService {
         }
     }
 
-    private boolean restaurantExists(Long restaurantId) {
+    private CompletableFuture<Boolean> restaurantExists(Long restaurantId) {
+        return asyncRestaurantClient.restaurantExistsAsync(restaurantId)
+                .handle((exists, e) -> {
+                    if (e != null) {
+                        if (unwrap(e) instanceof RestaurantBusyException) {
+                            throw (RestaurantBusyException) unwrap(e);
+                        }
+                        log.error("Erreur lors de la vérification du restaurant: {}", e.getMessage());
+                        return false;
+                    }
+                    return Boolean.TRUE.equals(exists);
+                });
+    }
+
+    // Une saturation de restaurant-service remonte telle quelle (503), pas comme un restaurant introuvable
+    private static boolean join(CompletableFuture<Boolean> restaurantFound) {
         try {
-            Boolean exists = restaurantClient.restaurantExists(restaurantId);
-            return Boolean.TRUE.equals(exists);
-        } catch (Exception e) {
-            log.error("Erreur lors de la vérification du restaurant: {}", e.getMessage());
-            return false;
+            return restaurantFound.join();
+        } catch (CompletionException e) {
+            if (unwrap(e) instanceof RestaurantBusyException) {
+                throw (RestaurantBusyException) unwrap(e);
+            }
+            throw e;
         }
     }
 
-    private boolean checkAvailability(ReservationRequestDTO requestDTO) {
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private boolean holdsSeats(ReservationStatus status) {
+        return status == ReservationStatus.PENDING || status == ReservationStatus.CONFIRMED;
+    }
+
+    private boolean reserveSeats(Long reservationId, Long restaurantId, LocalDateTime dateTime, Integer guests) {
         try {
-            Map<String, Object> response = restaurantClient.checkAvailability(
-                    requestDTO.getRestaurantId(),
-                    requestDTO.getReservationDateTime().toString(),
-                    requestDTO.getNumberOfGuests()
-            );
-
-            Object available = response.get("available");
-            if (available instanceof Boolean) {
-                return (Boolean) available;
-            } else if (available instanceof String) {
-                return Boolean.parseBoolean((String) available);
-            }
-            return false;
+            Map<String, Object> response = restaurantClient.reserveSeats(
+                    restaurantId, new SeatHoldDTO(reservationId, dateTime, guests));
+            return isTrue(response.get("reserved"));
+        } catch (RestaurantBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erreur de disponibilité: {}", e.getMessage());
             throw new IllegalStateException("Erreur lors de la vérification de disponibilité");
         }
     }
 
+    private void releaseSeats(Long restaurantId, Long reservationId) {
+        try {
+            restaurantClient.releaseSeats(restaurantId, new SeatHoldDTO(reservationId, null, null));
+        } catch (Exception e) {
+            log.error("Erreur lors de la libération des places de la réservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private void restoreSeats(Long reservationId, Long restaurantId, LocalDateTime dateTime, Integer guests) {
+        try {
+            restaurantClient.reserveSeats(restaurantId, new SeatHoldDTO(reservationId, dateTime, guests));
+        } catch (Exception e) {
+            log.error("Erreur lors de la restauration des places de la réservation {}: {}", reservationId, e.getMessage());
+        }
+    }
+
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        return false;
+    }
+
+    // Les appels à restaurant-service dépendent de l'issue de la transaction
+    private void onTransactionEnd(Runnable afterCommit, Runnable afterRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    afterCommit.run();
+                } else if (status == STATUS_ROLLED_BACK) {
+                    afterRollback.run();
+                }
+            }
+        });
+    }
+
     private ReservationResponseDTO convertToDTO(Reservation reservation) {
         return new ReservationResponseDTO(
                 reservation.getId(),
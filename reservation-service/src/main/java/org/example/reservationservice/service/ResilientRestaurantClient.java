@@ -0,0 +1,115 @@
+package org.example.reservationservice.service;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.dto.RestaurantChangesDTO;
+import org.example.reservationservice.dto.SeatHoldDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Appels HTTP vers restaurant-service derrière un cloisonnement (appels simultanés bornés, attente
+ * courte) et un disjoncteur, tous deux nommés restaurant-service (resilience4j.*). Seuls les appels
+ * réellement envoyés passent ici : les réponses en cache ne comptent pas pour le disjoncteur.
+ * Circuit ouvert ou cloisonnement plein, l'exception de resilience4j remonte jusqu'à
+ * FallbackRestaurantClient. Les changements d'état du disjoncteur sont journalisés et comptés dans
+ * restaurant.circuitbreaker.transitions (tags from, to).
+ */
+@Component("resilientRestaurantClient")
+@Slf4j
+public class ResilientRestaurantClient implements RestaurantClient, AsyncRestaurantClient {
+
+    private static final String INSTANCE = "restaurant-service";
+
+    private final RestaurantClient delegate;
+    private final AsyncRestaurantClient asyncDelegate;
+    private final RestaurantFallback fallback;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientRestaurantClient(
+            @Qualifier("restaurantHttpClient") RestaurantClient delegate,
+            @Qualifier("restaurantAsyncHttpClient") AsyncRestaurantClient asyncDelegate,
+            RestaurantFallback fallback,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.asyncDelegate = asyncDelegate;
+        this.fallback = fallback;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Disjoncteur {} : {} -> {}", INSTANCE, transition.getFromState(), transition.getToState());
+            meterRegistry.counter("restaurant.circuitbreaker.transitions",
+                    "from", transition.getFromState().name(),
+                    "to", transition.getToState().name()).increment();
+        });
+    }
+
+    @Override
+    public Map<String, Object> checkAvailability(Long restaurantId, String dateTime, Integer guests) {
+        return call(() -> delegate.checkAvailability(restaurantId, dateTime, guests));
+    }
+
+    @Override
+    public Map<String, Object> reserveSeats(Long restaurantId, SeatHoldDTO hold) {
+        return call(() -> delegate.reserveSeats(restaurantId, hold));
+    }
+
+    @Override
+    public Map<String, Object> releaseSeats(Long restaurantId, SeatHoldDTO hold) {
+        return call(() -> delegate.releaseSeats(restaurantId, hold));
+    }
+
+    @Override
+    public Boolean restaurantExists(Long restaurantId) {
+        return call(() -> delegate.restaurantExists(restaurantId));
+    }
+
+    @Override
+    public RestaurantChangesDTO getChanges(long since) {
+        return call(() -> delegate.getChanges(since));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> checkAvailabilityAsync(Long restaurantId, String dateTime,
+                                                                         Integer guests) {
+        return callAsync(() -> asyncDelegate.checkAvailabilityAsync(restaurantId, dateTime, guests));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> restaurantExistsAsync(Long restaurantId) {
+        return callAsync(() -> asyncDelegate.restaurantExistsAsync(restaurantId));
+    }
+
+    // Prises et libérations décidées localement, rejouées dès que le circuit est refermé
+    @Scheduled(fixedDelayString = "${restaurant.fallback.replay-interval-ms:5000}")
+    public void replayPending() {
+        fallback.purgeExpired();
+        if (circuitBreaker.getState() == CircuitBreaker.State.CLOSED && fallback.hasPendingCalls()) {
+            fallback.replay(this);
+        }
+    }
+
+    // Cloisonnement à l'intérieur : un appel refusé faute de place ne compte pas pour le disjoncteur
+    private <T> T call(Supplier<T> supplier) {
+        return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, supplier));
+    }
+
+    private <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> supplier) {
+        Supplier<CompletionStage<T>> stage = supplier::get;
+        return circuitBreaker.executeCompletionStage(Bulkhead.decorateCompletionStage(bulkhead, stage))
+                .toCompletableFuture();
+    }
+}
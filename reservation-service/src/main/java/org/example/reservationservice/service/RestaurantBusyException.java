@@ -0,0 +1,9 @@
+package org.example.reservationservice.service;
+
+// restaurant-service répond mais tous ses appels simultanés sont pris : à retenter, sans décision locale
+public class RestaurantBusyException extends RuntimeException {
+
+    public RestaurantBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.reservationservice.service;
+
+// Synchronisation réussie de RestaurantReplica ; complete : instantané entier, reçu à la première
+// synchronisation et chaque fois que restaurant-service a rechargé ses index, donc redémarré
+@lombok.Value
+public class RestaurantCatalogueSyncedEvent {
+    long version;
+    boolean complete;
+}
@@ -1,13 +1,20 @@
 package org.example.reservationservice.service;
 
+import org.example.reservationservice.dto.RestaurantChangesDTO;
+import org.example.reservationservice.dto.SeatHoldDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.Map;
 
-@FeignClient(name = "restaurant-service", url = "${restaurant.service.url}")
+// Appels HTTP bruts ; les services injectent RestaurantClient, servi par FallbackRestaurantClient,
+// CachingRestaurantClient puis ResilientRestaurantClient
+@FeignClient(name = "restaurant-service", url = "${restaurant.service.url}",
+        qualifiers = "restaurantHttpClient", primary = false)
 public interface RestaurantClient {
 
     @GetMapping("/api/restaurants/{id}/availability")
@@ -16,6 +23,21 @@ public interface RestaurantClient {
             @RequestParam("dateTime") String dateTime,
             @RequestParam("guests") Integer guests);
 
+    // Corps envoyés en CBOR ; l'en-tête Accept est posé par FeignConfig
+    @PostMapping(value = "/api/restaurants/{id}/availability/reserve", consumes = "application/cbor")
+    Map<String, Object> reserveSeats(
+            @PathVariable("id") Long restaurantId,
+            @RequestBody SeatHoldDTO hold);
+
+    @PostMapping(value = "/api/restaurants/{id}/availability/release", consumes = "application/cbor")
+    Map<String, Object> releaseSeats(
+            @PathVariable("id") Long restaurantId,
+            @RequestBody SeatHoldDTO hold);
+
     @GetMapping("/api/restaurants/{id}/exists")
     Boolean restaurantExists(@PathVariable("id") Long restaurantId);
+
+    // Restaurants modifiés ou supprimés depuis la version since, lu par RestaurantReplica
+    @GetMapping("/api/restaurants/changes")
+    RestaurantChangesDTO getChanges(@RequestParam("since") long since);
 }
\ No newline at end of file
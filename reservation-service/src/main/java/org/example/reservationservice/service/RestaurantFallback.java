@@ -0,0 +1,217 @@
+package org.example.reservationservice.service;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.dto.SeatHoldDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Décisions prises sans restaurant-service, quand le disjoncteur est ouvert (service jugé en panne).
+ * Les places restantes par horaire viennent des dernières réponses de restaurant-service et ne
+ * font que baisser localement : un horaire sans réponse récente est refusé. Les prises décidées
+ * ici, et les libérations qui n'ont pas pu partir (circuit ouvert ou cloisonnement plein), sont
+ * rejouées auprès de restaurant-service une fois le circuit refermé.
+ */
+@Component
+@Slf4j
+public class RestaurantFallback {
+
+    // Résolue à l'usage : la réplique lit son flux à travers ResilientRestaurantClient, qui dépend d'ici
+    private final ObjectProvider<RestaurantReplica> restaurantReplica;
+    private final Map<Long, Map<LocalDateTime, KnownSeats>> knownSeats = new ConcurrentHashMap<>();
+    private final Map<Long, PendingCall> pending = new LinkedHashMap<>();
+
+    @Value("${restaurant.fallback.reservation-duration-minutes:120}")
+    private long reservationDurationMinutes;
+
+    @Value("${restaurant.fallback.known-seats-ttl:10m}")
+    private Duration knownSeatsTtl;
+
+    public RestaurantFallback(ObjectProvider<RestaurantReplica> restaurantReplica) {
+        this.restaurantReplica = restaurantReplica;
+    }
+
+    // Réponse distante à une prise de places : les horaires qui chevauchent perdent aussi ces places
+    public void recordReserved(Long restaurantId, SeatHoldDTO hold, Map<String, Object> response) {
+        if (hold.getDateTime() == null || !Boolean.TRUE.equals(response.get("reserved"))) {
+            return;
+        }
+        Map<LocalDateTime, KnownSeats> seats = seats(restaurantId);
+        synchronized (seats) {
+            take(seats, hold.getDateTime(), hold.getGuests());
+            seats.put(hold.getDateTime(), new KnownSeats(remaining(response), System.nanoTime()));
+        }
+    }
+
+    public void recordAvailability(Long restaurantId, LocalDateTime dateTime, Map<String, Object> response) {
+        if (Boolean.TRUE.equals(response.get("available"))) {
+            Map<LocalDateTime, KnownSeats> seats = seats(restaurantId);
+            synchronized (seats) {
+                seats.put(dateTime, new KnownSeats(remaining(response), System.nanoTime()));
+            }
+        }
+    }
+
+    public Map<String, Object> reserveSeats(Long restaurantId, SeatHoldDTO hold) {
+        Map<String, Object> response = new HashMap<>();
+        RestaurantReplica.Verdict verdict = restaurantReplica.getObject()
+                .checkLastKnown(restaurantId, hold.getDateTime(), hold.getGuests());
+        Integer remaining = verdict == RestaurantReplica.Verdict.AVAILABLE ? takeLocally(restaurantId, hold) : null;
+        if (remaining == null) {
+            response.put("reserved", false);
+            response.put("message", "restaurant-service indisponible, pas de disponibilité connue pour cet horaire");
+            return response;
+        }
+        synchronized (pending) {
+            pending.put(hold.getReservationId(), new PendingCall(restaurantId, hold, true));
+        }
+        log.warn("Places accordées localement pour la réservation {} (restaurant {}), à rejouer",
+                hold.getReservationId(), restaurantId);
+        response.put("reserved", true);
+        response.put("message", "Places réservées localement");
+        response.put("remainingSeats", remaining);
+        return response;
+    }
+
+    // Les places rendues ne sont pas recréditées localement : restaurant-service en décidera
+    public Map<String, Object> releaseSeats(Long restaurantId, SeatHoldDTO hold) {
+        synchronized (pending) {
+            pending.put(hold.getReservationId(), new PendingCall(restaurantId, hold, false));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("released", false);
+        response.put("message", "Libération rejouée au retour de restaurant-service");
+        return response;
+    }
+
+    public Map<String, Object> checkAvailability(Long restaurantId, String dateTime, Integer guests) {
+        Map<String, Object> response = new HashMap<>();
+        KnownSeats known = null;
+        try {
+            Map<LocalDateTime, KnownSeats> seats = seats(restaurantId);
+            synchronized (seats) {
+                known = fresh(seats.get(LocalDateTime.parse(dateTime)));
+            }
+        } catch (RuntimeException e) {
+            // Horaire illisible : rien de connu
+        }
+        boolean available = known != null && known.remaining >= guests;
+        response.put("available", available);
+        response.put("message", available ? "Disponible (réponse locale)" : "restaurant-service indisponible");
+        if (available) {
+            response.put("remainingSeats", known.remaining);
+        }
+        return response;
+    }
+
+    public Boolean restaurantExists(Long restaurantId) {
+        return restaurantReplica.getObject().knows(restaurantId);
+    }
+
+    public boolean hasPendingCalls() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }
+
+    // Rejoue dans l'ordre ; s'arrête à la première erreur, reprise au prochain passage
+    public void replay(RestaurantClient remote) {
+        List<Map.Entry<Long, PendingCall>> calls;
+        synchronized (pending) {
+            calls = new ArrayList<>(pending.entrySet());
+        }
+        for (Map.Entry<Long, PendingCall> entry : calls) {
+            PendingCall call = entry.getValue();
+            try {
+                if (call.reserve) {
+                    Map<String, Object> response = remote.reserveSeats(call.restaurantId, call.hold);
+                    if (!Boolean.TRUE.equals(response.get("reserved"))) {
+                        log.error("Places accordées localement refusées par restaurant-service pour la réservation {}: {}",
+                                entry.getKey(), response.get("message"));
+                    }
+                } else {
+                    remote.releaseSeats(call.restaurantId, call.hold);
+                }
+            } catch (Exception e) {
+                log.warn("Rejeu interrompu à la réservation {}: {}", entry.getKey(), e.getMessage());
+                return;
+            }
+            synchronized (pending) {
+                pending.remove(entry.getKey(), call);
+            }
+        }
+    }
+
+    public void purgeExpired() {
+        knownSeats.values().forEach(seats -> {
+            synchronized (seats) {
+                seats.values().removeIf(known -> fresh(known) == null);
+            }
+        });
+    }
+
+    // Places restantes après la prise, ou null si l'horaire n'est pas connu ou trop plein
+    private Integer takeLocally(Long restaurantId, SeatHoldDTO hold) {
+        Map<LocalDateTime, KnownSeats> seats = seats(restaurantId);
+        synchronized (seats) {
+            KnownSeats known = fresh(seats.get(hold.getDateTime()));
+            if (known == null || known.remaining < hold.getGuests()) {
+                return null;
+            }
+            take(seats, hold.getDateTime(), hold.getGuests());
+            return seats.get(hold.getDateTime()).remaining;
+        }
+    }
+
+    private void take(Map<LocalDateTime, KnownSeats> seats, LocalDateTime dateTime, int guests) {
+        seats.replaceAll((start, known) ->
+                Math.abs(Duration.between(start, dateTime).toMinutes()) < reservationDurationMinutes
+                        ? new KnownSeats(Math.max(0, known.remaining - guests), known.recordedAt)
+                        : known);
+    }
+
+    private KnownSeats fresh(KnownSeats known) {
+        return known != null && System.nanoTime() - known.recordedAt < knownSeatsTtl.toNanos() ? known : null;
+    }
+
+    private Map<LocalDateTime, KnownSeats> seats(Long restaurantId) {
+        return knownSeats.computeIfAbsent(restaurantId, id -> new HashMap<>());
+    }
+
+    // Sans capacité renseignée, le restaurant n'est pas limité en places
+    private static int remaining(Map<String, Object> response) {
+        Object remaining = response.get("remainingSeats");
+        return remaining instanceof Number ? ((Number) remaining).intValue() : Integer.MAX_VALUE;
+    }
+
+    private static final class KnownSeats {
+        private final int remaining;
+        private final long recordedAt;
+
+        private KnownSeats(int remaining, long recordedAt) {
+            this.remaining = remaining;
+            this.recordedAt = recordedAt;
+        }
+    }
+
+    private static final class PendingCall {
+        private final Long restaurantId;
+        private final SeatHoldDTO hold;
+        private final boolean reserve;
+
+        private PendingCall(Long restaurantId, SeatHoldDTO hold, boolean reserve) {
+            this.restaurantId = restaurantId;
+            this.hold = hold;
+            this.reserve = reserve;
+        }
+    }
+}
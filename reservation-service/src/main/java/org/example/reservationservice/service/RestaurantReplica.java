@@ -0,0 +1,149 @@
+package org.example.reservationservice.service;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.dto.RestaurantChangesDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copie locale des restaurants (existence, capacité, horaires), tenue à jour depuis le flux
+ * /api/restaurants/changes de restaurant-service. Elle évite l'appel distant de vérification
+ * avant une réservation ; la prise de places reste faite par restaurant-service.
+ * Sans synchronisation réussie depuis max-staleness-ms, elle ne tranche plus rien.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RestaurantReplica {
+
+    public enum Verdict {
+        UNKNOWN, CLOSED, INSUFFICIENT_CAPACITY, AVAILABLE
+    }
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final RestaurantClient restaurantClient;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Snapshot> restaurants = new ConcurrentHashMap<>();
+    private volatile long version;
+    private volatile long lastSync;
+    private volatile boolean synced;
+
+    @Value("${restaurant.replica.enabled:true}")
+    private boolean enabled;
+
+    @Value("${restaurant.replica.max-staleness-ms:30000}")
+    private long maxStalenessMs;
+
+    @Scheduled(fixedDelayString = "${restaurant.replica.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        RestaurantChangesDTO changes;
+        try {
+            changes = restaurantClient.getChanges(version);
+        } catch (Exception e) {
+            log.warn("Synchronisation des restaurants impossible: {}", e.getMessage());
+            return;
+        }
+        Set<Long> received = new HashSet<>();
+        for (RestaurantChangesDTO.Restaurant restaurant : changes.getRestaurants()) {
+            restaurants.put(restaurant.getId(), Snapshot.of(restaurant));
+            received.add(restaurant.getId());
+        }
+        if (changes.isComplet()) {
+            restaurants.keySet().retainAll(received);
+            log.info("Réplique des restaurants rechargée: {} restaurants (version {})", restaurants.size(),
+                    changes.getVersion());
+        }
+        changes.getSupprimes().forEach(restaurants::remove);
+        version = changes.getVersion();
+        lastSync = System.nanoTime();
+        synced = true;
+        // Un instantané complet suit un rechargement des index de restaurant-service (SeatHoldResync)
+        eventPublisher.publishEvent(new RestaurantCatalogueSyncedEvent(changes.getVersion(), changes.isComplet()));
+    }
+
+    // UNKNOWN : réplique périmée ou restaurant absent (peut-être créé depuis), à vérifier à distance
+    public Verdict check(Long restaurantId, LocalDateTime dateTime, Integer guests) {
+        return isFresh() ? checkLastKnown(restaurantId, dateTime, guests) : Verdict.UNKNOWN;
+    }
+
+    // Même contrôle sur la dernière copie reçue, même périmée : repli quand restaurant-service est injoignable
+    public Verdict checkLastKnown(Long restaurantId, LocalDateTime dateTime, Integer guests) {
+        Snapshot restaurant = restaurants.get(restaurantId);
+        if (restaurant == null) {
+            return Verdict.UNKNOWN;
+        }
+        if (restaurant.capacity != null && guests > restaurant.capacity) {
+            return Verdict.INSUFFICIENT_CAPACITY;
+        }
+        return restaurant.isOpen(dateTime) ? Verdict.AVAILABLE : Verdict.CLOSED;
+    }
+
+    public boolean knows(Long restaurantId) {
+        return restaurants.containsKey(restaurantId);
+    }
+
+    // Capacité de la dernière copie reçue ; null si le restaurant est inconnu ou sans capacité renseignée
+    public Integer lastKnownCapacity(Long restaurantId) {
+        Snapshot restaurant = restaurants.get(restaurantId);
+        return restaurant == null ? null : restaurant.capacity;
+    }
+
+    private boolean isFresh() {
+        return enabled && synced
+                && System.nanoTime() - lastSync < TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    // Mêmes horaires tous les jours, sur [ouverture, fermeture) ; une fermeture avant l'ouverture
+    // déborde sur le lendemain, comme dans restaurant-service
+    private static final class Snapshot {
+        private final Integer capacity;
+        private final int opening;
+        private final int openMinutes;
+
+        private Snapshot(Integer capacity, int opening, int openMinutes) {
+            this.capacity = capacity;
+            this.opening = opening;
+            this.openMinutes = openMinutes;
+        }
+
+        static Snapshot of(RestaurantChangesDTO.Restaurant restaurant) {
+            int opening = 0;
+            int openMinutes = 0;
+            if (restaurant.getHeureOuverture() != null && restaurant.getHeureFermeture() != null) {
+                try {
+                    opening = minuteOfDay(LocalTime.parse(restaurant.getHeureOuverture(), HOUR_FORMAT));
+                    int closing = minuteOfDay(LocalTime.parse(restaurant.getHeureFermeture(), HOUR_FORMAT));
+                    openMinutes = Math.floorMod(closing - opening, MINUTES_PER_DAY);
+                } catch (DateTimeParseException e) {
+                    // Considéré fermé, comme dans restaurant-service
+                }
+            }
+            return new Snapshot(restaurant.getCapaciteTotale(), opening, openMinutes);
+        }
+
+        boolean isOpen(LocalDateTime dateTime) {
+            return Math.floorMod(minuteOfDay(dateTime.toLocalTime()) - opening, MINUTES_PER_DAY) < openMinutes;
+        }
+
+        private static int minuteOfDay(LocalTime time) {
+            return time.getHour() * 60 + time.getMinute();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.reservationservice.service;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.dto.SeatHoldDTO;
+import org.example.reservationservice.entity.Reservation;
+import org.example.reservationservice.enums.ReservationStatus;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renvoie à restaurant-service les places des réservations à venir : son registre est en mémoire
+ * et repart de zéro à chaque redémarrage. Une passe est demandée à la première synchronisation
+ * réussie de RestaurantReplica et à chaque instantané complet ; la demande n'est effacée qu'au bout
+ * d'une passe entière. La passe tourne sur son propre fil ; interrompue par une erreur, elle reprend
+ * après la dernière réservation envoyée, à la synchronisation suivante.
+ * Les appels passent par le disjoncteur mais pas par le repli : une place accordée localement
+ * ne serait pas tenue par restaurant-service.
+ */
+@Component
+@Slf4j
+public class SeatHoldResync {
+
+    private final ReservationRepository reservationRepository;
+    private final RestaurantClient restaurantClient;
+    private final boolean replicaEnabled;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resync-places");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long completed;
+    // Point de reprise, lu et écrit par le seul fil de resynchronisation
+    private long resumeRequest;
+    private long resumeAfterId;
+
+    public SeatHoldResync(ReservationRepository reservationRepository,
+                          @Qualifier("resilientRestaurantClient") RestaurantClient restaurantClient,
+                          @Value("${restaurant.replica.enabled:true}") boolean replicaEnabled) {
+        this.reservationRepository = reservationRepository;
+        this.restaurantClient = restaurantClient;
+        this.replicaEnabled = replicaEnabled;
+    }
+
+    // Sans réplique, aucune synchronisation ne viendra : une seule passe, au démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!replicaEnabled) {
+            requested.incrementAndGet();
+            resume();
+        }
+    }
+
+    @EventListener
+    public void onCatalogueSynced(RestaurantCatalogueSyncedEvent event) {
+        if (event.isComplete()) {
+            requested.incrementAndGet();
+        }
+        resume();
+    }
+
+    public boolean isPending() {
+        return completed < requested.get();
+    }
+
+    private void resume() {
+        if (isPending() && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    runPass();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void runPass() {
+        long request = requested.get();
+        if (request != resumeRequest) {
+            resumeRequest = request;
+            resumeAfterId = 0;
+        }
+        List<Reservation> upcoming = reservationRepository.findByStatusInAndReservationDateTimeAfter(
+                List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED), LocalDateTime.now());
+        upcoming.sort(Comparator.comparing(Reservation::getId));
+        int synced = 0;
+        int refused = 0;
+        for (Reservation reservation : upcoming) {
+            if (reservation.getId() <= resumeAfterId) {
+                continue;
+            }
+            try {
+                Map<String, Object> response = restaurantClient.reserveSeats(reservation.getRestaurantId(),
+                        new SeatHoldDTO(reservation.getId(), reservation.getReservationDateTime(),
+                                reservation.getNumberOfGuests()));
+                if (isTrue(response.get("reserved"))) {
+                    synced++;
+                } else {
+                    refused++;
+                    log.warn("Places refusées pour la réservation {}: {}", reservation.getId(), response.get("message"));
+                }
+            } catch (Exception e) {
+                log.warn("Resynchronisation des places interrompue après la réservation {}, reprise à la prochaine "
+                        + "synchronisation: {}", resumeAfterId, e.getMessage());
+                return;
+            }
+            resumeAfterId = reservation.getId();
+        }
+        completed = request;
+        log.info("{} réservations à venir resynchronisées avec restaurant-service, {} refusées", synced, refused);
+    }
+
+    private static boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean((String) value);
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
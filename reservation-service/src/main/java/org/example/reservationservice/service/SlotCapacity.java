@@ -0,0 +1,164 @@
+package org.example.reservationservice.service;
+import lombok.extern.slf4j.Slf4j;
+import org.example.reservationservice.entity.Reservation;
+import org.example.reservationservice.enums.ReservationStatus;
+import org.example.reservationservice.repository.ReservationRepository;
+import org.example.reservationservice.repository.ReservationSlotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Couverts occupés par restaurant et par créneau (15 minutes par défaut), dans la table
+ * reservation_slots. Une réservation occupe tous les créneaux couverts par sa durée, comme dans
+ * le registre de restaurant-service, mais ce compteur-ci survit aux redémarrages et aux décisions
+ * prises en repli. La prise est un UPDATE conditionnel unique sur ces créneaux
+ * (booked_seats + couverts <= capacité) : la base sérialise les réservations concurrentes d'un
+ * même créneau et chaque ligne n'est verrouillée que jusqu'au commit de la réservation.
+ * La capacité est celle de la dernière copie de RestaurantReplica ; inconnue, les couverts sont
+ * comptés sans limite et restaurant-service reste seul juge.
+ */
+@Component
+@Slf4j
+public class SlotCapacity {
+
+    private final ReservationSlotRepository slotRepository;
+    private final ReservationRepository reservationRepository;
+    private final RestaurantReplica restaurantReplica;
+    private final JdbcTemplate jdbcTemplate;
+    private final int slotMinutes;
+    private final int durationMinutes;
+
+    public SlotCapacity(ReservationSlotRepository slotRepository,
+                        ReservationRepository reservationRepository,
+                        RestaurantReplica restaurantReplica,
+                        JdbcTemplate jdbcTemplate,
+                        @Value("${reservation.slots.slot-minutes:15}") int slotMinutes,
+                        @Value("${reservation.slots.duration-minutes:120}") int durationMinutes) {
+        this.slotRepository = slotRepository;
+        this.reservationRepository = reservationRepository;
+        this.restaurantReplica = restaurantReplica;
+        this.jdbcTemplate = jdbcTemplate;
+        this.slotMinutes = slotMinutes;
+        this.durationMinutes = durationMinutes;
+    }
+
+    // Lecture sans verrou pour refuser tôt un créneau déjà plein ; seul hold() fait foi
+    public boolean hasRoom(Long restaurantId, LocalDateTime dateTime, int guests) {
+        Integer capacity = restaurantReplica.lastKnownCapacity(restaurantId);
+        if (capacity == null) {
+            return true;
+        }
+        return slotRepository.maxBookedSeats(restaurantId, firstSlot(dateTime), lastSlot(dateTime)) + guests <= capacity;
+    }
+
+    // Dans la transaction de la réservation, au plus près du commit : les lignes restent verrouillées jusque-là
+    @Transactional
+    public boolean hold(Long restaurantId, LocalDateTime dateTime, int guests) {
+        LocalDateTime first = firstSlot(dateTime);
+        LocalDateTime last = lastSlot(dateTime);
+        try {
+            createMissingSlots(restaurantId, first, last);
+            Integer capacity = restaurantReplica.lastKnownCapacity(restaurantId);
+            if (capacity == null) {
+                slotRepository.addSeats(restaurantId, first, last, guests);
+                return true;
+            }
+            // Moins de lignes modifiées que de créneaux : un créneau était plein, les autres ont été
+            // incrémentés et la transaction est annulée, même sans transaction appelante
+            if (slotRepository.holdSeats(restaurantId, first, last, guests, capacity) == slotCount(first, last)) {
+                return true;
+            }
+        } catch (PessimisticLockingFailureException e) {
+            // Interblocage ou attente de verrou expirée sur un créneau très disputé : refus plutôt qu'une erreur 500
+            log.warn("Créneaux du restaurant {} à {} non verrouillés, réservation refusée: {}",
+                    restaurantId, dateTime, e.getMostSpecificCause().getMessage());
+        }
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return false;
+    }
+
+    @Transactional
+    public void release(Long restaurantId, LocalDateTime dateTime, int guests) {
+        slotRepository.releaseSeats(restaurantId, firstSlot(dateTime), lastSlot(dateTime), guests);
+    }
+
+    // Premier démarrage avec la table : elle est remplie depuis les réservations à venir déjà en base
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (slotRepository.count() > 0) {
+            return;
+        }
+        List<Reservation> upcoming = reservationRepository.findByStatusInAndReservationDateTimeAfter(
+                List.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED), LocalDateTime.now());
+        Map<Long, Map<LocalDateTime, Integer>> booked = new TreeMap<>();
+        for (Reservation reservation : upcoming) {
+            Map<LocalDateTime, Integer> slots = booked.computeIfAbsent(reservation.getRestaurantId(), id -> new TreeMap<>());
+            LocalDateTime last = lastSlot(reservation.getReservationDateTime());
+            for (LocalDateTime slot = firstSlot(reservation.getReservationDateTime()); !slot.isAfter(last);
+                 slot = slot.plusMinutes(slotMinutes)) {
+                slots.merge(slot, reservation.getNumberOfGuests(), Integer::sum);
+            }
+        }
+        List<Object[]> rows = new ArrayList<>();
+        booked.forEach((restaurantId, slots) -> slots.forEach((slot, seats) ->
+                rows.add(new Object[]{restaurantId, Timestamp.valueOf(slot), seats})));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO reservation_slots (restaurant_id, slot_start, booked_seats) VALUES (?, ?, ?)", rows);
+        log.info("Créneaux initialisés depuis {} réservations à venir: {} lignes", upcoming.size(), rows.size());
+    }
+
+    // Les créneaux passés ne peuvent plus être réservés
+    @Scheduled(fixedDelayString = "${reservation.slots.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        int deleted = slotRepository.deleteBefore(firstSlot(LocalDateTime.now()));
+        if (deleted > 0) {
+            log.debug("{} créneaux passés supprimés", deleted);
+        }
+    }
+
+    private void createMissingSlots(Long restaurantId, LocalDateTime first, LocalDateTime last) {
+        Set<LocalDateTime> existing = new HashSet<>(slotRepository.findSlotStarts(restaurantId, first, last));
+        for (LocalDateTime slot = first; !slot.isAfter(last); slot = slot.plusMinutes(slotMinutes)) {
+            if (!existing.contains(slot)) {
+                slotRepository.createSlot(restaurantId, slot);
+            }
+        }
+    }
+
+    private int slotCount(LocalDateTime first, LocalDateTime last) {
+        return (int) (Duration.between(first, last).toMinutes() / slotMinutes) + 1;
+    }
+
+    private LocalDateTime firstSlot(LocalDateTime dateTime) {
+        return slotStart(dateTime);
+    }
+
+    private LocalDateTime lastSlot(LocalDateTime dateTime) {
+        return slotStart(dateTime.plusMinutes(durationMinutes).minusNanos(1));
+    }
+
+    private LocalDateTime slotStart(LocalDateTime dateTime) {
+        long minute = dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(minute, slotMinutes) * slotMinutes * 60, 0, ZoneOffset.UTC);
+    }
+}
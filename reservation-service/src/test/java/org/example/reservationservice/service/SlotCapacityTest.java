@@ -0,0 +1,102 @@
+package org.example.reservationservice.service;
+
+import org.example.reservationservice.repository.ReservationSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Profil h2 sur une base en mémoire neuve ; la capacité vient d'une réplique simulée
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:slot_capacity;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+class SlotCapacityTest {
+
+    private static final int CAPACITY = 10;
+    private static final LocalDateTime DINNER = LocalDateTime.now().plusDays(7).withHour(20).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    @Autowired
+    private SlotCapacity slotCapacity;
+
+    @Autowired
+    private ReservationSlotRepository slotRepository;
+
+    @MockBean
+    private RestaurantReplica restaurantReplica;
+
+    @BeforeEach
+    void knownCapacity() {
+        when(restaurantReplica.lastKnownCapacity(anyLong())).thenReturn(CAPACITY);
+    }
+
+    @Test
+    void concurrentHoldsNeverExceedCapacity() throws Exception {
+        long restaurantId = 101;
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> holds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Callable<Boolean> hold = () -> {
+                start.await();
+                return slotCapacity.hold(restaurantId, DINNER, 2);
+            };
+            holds.add(executor.submit(hold));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Boolean> hold : holds) {
+            if (hold.get()) {
+                granted++;
+            }
+        }
+        executor.shutdown();
+
+        // Une attente de verrou expirée peut refuser une prise qui tenait, jamais en accorder une de trop
+        assertThat(granted).isBetween(1, CAPACITY / 2);
+        assertThat(bookedSeats(restaurantId)).isEqualTo(2 * granted);
+    }
+
+    @Test
+    void releaseGivesBackWhatHoldTook() {
+        long restaurantId = 102;
+
+        assertThat(slotCapacity.hold(restaurantId, DINNER, 4)).isTrue();
+        assertThat(bookedSeats(restaurantId)).isEqualTo(4);
+        assertThat(slotCapacity.hold(restaurantId, DINNER.plusMinutes(30), 7)).isFalse();
+
+        slotCapacity.release(restaurantId, DINNER, 4);
+        assertThat(bookedSeats(restaurantId)).isZero();
+        assertThat(slotCapacity.hold(restaurantId, DINNER.plusMinutes(30), 7)).isTrue();
+        assertThat(bookedSeats(restaurantId)).isEqualTo(7);
+    }
+
+    @Test
+    void holdRefusesAGroupLargerThanTheRoomLeft() {
+        long restaurantId = 103;
+
+        assertThat(slotCapacity.hold(restaurantId, DINNER, CAPACITY)).isTrue();
+        assertThat(slotCapacity.hold(restaurantId, DINNER.minusMinutes(105), 1)).isFalse();
+        assertThat(slotCapacity.hold(restaurantId, DINNER.minusMinutes(120), 1)).isTrue();
+        assertThat(bookedSeats(restaurantId)).isEqualTo(CAPACITY);
+    }
+
+    private int bookedSeats(long restaurantId) {
+        return slotRepository.maxBookedSeats(restaurantId, DINNER.minusHours(3), DINNER.plusHours(3));
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.restaurantbenchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Point d'entrée de benchmarks.jar : options JMH habituelles en ligne de commande, profileur GC
+ * toujours actif pour publier le débit d'allocation (gc.alloc.rate.norm) à côté du débit.
+ * Exemple : java -jar target/benchmarks.jar RestaurantSearch -p taille=10000 -rf json
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        CommandLineOptions ligneDeCommande = new CommandLineOptions(args);
+        if (ligneDeCommande.shouldHelp()) {
+            ligneDeCommande.showHelp();
+            return;
+        }
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(ligneDeCommande);
+        if (ligneDeCommande.getProfilers().stream().noneMatch(p -> p.getKlass().equals(GCProfiler.class.getName()))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.restaurantbenchmarks;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.GeoIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul de distance (haversine de GeoIndex, qui remplace calculerDistance) sur tout le
+ * catalogue, comparé aux recherches par rayon et des plus proches voisins de la grille.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DistanceBenchmark {
+
+    private static final double LATITUDE = SyntheticCatalogue.LATITUDE_CENTRE;
+    private static final double LONGITUDE = SyntheticCatalogue.LONGITUDE_CENTRE;
+
+    @Param({"1000", "10000", "100000"})
+    int taille;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private GeoIndex geoIndex;
+
+    @Setup
+    public void preparer() {
+        List<Restaurant> restaurants = SyntheticCatalogue.generer(taille, 42);
+        latitudes = new double[taille];
+        longitudes = new double[taille];
+        for (int i = 0; i < taille; i++) {
+            latitudes[i] = restaurants.get(i).getLatitude().doubleValue();
+            longitudes[i] = restaurants.get(i).getLongitude().doubleValue();
+        }
+        geoIndex = new GeoIndex();
+        geoIndex.reconstruire(restaurants);
+    }
+
+    // Coût d'un parcours complet : ce que faisait une recherche par rayon avant la grille
+    @Benchmark
+    public double distanceATous() {
+        double total = 0;
+        for (int i = 0; i < taille; i++) {
+            total += GeoIndex.distanceKm(LATITUDE, LONGITUDE, latitudes[i], longitudes[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public List<GeoIndex.Voisin> dansRayon() {
+        return geoIndex.rechercherDansRayon(LATITUDE, LONGITUDE, 5.0);
+    }
+
+    @Benchmark
+    public List<GeoIndex.Voisin> plusProches() {
+        return geoIndex.rechercherPlusProches(LATITUDE, LONGITUDE, 10, 20.0);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.restaurantbenchmarks;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.OpeningHoursIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restaurants ouverts à un instant : test restaurant par restaurant
+ * (RestaurantService.estOuvertMaintenant) contre les segments d'OpeningHoursIndex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OpeningHoursBenchmark {
+
+    // Instant fixe (vendredi soir) : les résultats ne dépendent pas de l'heure de la mesure
+    private static final LocalDateTime INSTANT = LocalDateTime.of(2024, 6, 14, 20, 30);
+
+    @Param({"1000", "10000", "100000"})
+    int taille;
+
+    private List<Restaurant> restaurants;
+    private OpeningHoursIndex openingHoursIndex;
+
+    @Setup
+    public void preparer() {
+        restaurants = SyntheticCatalogue.generer(taille, 42);
+        openingHoursIndex = new OpeningHoursIndex();
+        openingHoursIndex.reconstruire(restaurants);
+    }
+
+    @Benchmark
+    public int estOuvertParRestaurant() {
+        int ouverts = 0;
+        for (Restaurant restaurant : restaurants) {
+            if (OpeningHoursIndex.compiler(restaurant).estOuvert(INSTANT)) {
+                ouverts++;
+            }
+        }
+        return ouverts;
+    }
+
+    @Benchmark
+    public int compterOuverts() {
+        return openingHoursIndex.compterOuverts(INSTANT);
+    }
+
+    @Benchmark
+    public long[] idsOuverts() {
+        return openingHoursIndex.idsOuverts(INSTANT);
+    }
+}
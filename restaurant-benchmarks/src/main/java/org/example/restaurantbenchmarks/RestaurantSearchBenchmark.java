@@ -0,0 +1,119 @@
+package org.example.restaurantbenchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.restaurantservice.dto.JsonFragments;
+import org.example.restaurantservice.dto.RechercheRestaurantRequest;
+import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.GeoIndex;
+import org.example.restaurantservice.index.OpeningHoursIndex;
+import org.example.restaurantservice.index.RestaurantJsonCache;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
+import org.example.restaurantservice.index.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche multicritère (RestaurantService.rechercherRestaurants, servie par le moteur en
+ * mémoire) : liste complète de DTO, et première page de 20 fiches pré-encodées telle que
+ * la servent les endpoints paginés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RestaurantSearchBenchmark {
+
+    private static final int TAILLE_PAGE = 20;
+
+    @Param({"1000", "10000", "100000"})
+    int taille;
+
+    // Combinaisons filtres + tri ; "ouvert" dépend de l'heure à laquelle la mesure est lancée
+    @Param({"tous", "cuisine_note", "nom_prix_asc", "prix_popularite", "rayon_distance", "ouvert_capacite"})
+    String scenario;
+
+    private RestaurantSearchEngine searchEngine;
+    private RestaurantJsonCache jsonCache;
+    private RechercheRestaurantRequest request;
+
+    @Setup
+    public void preparer() {
+        List<Restaurant> restaurants = SyntheticCatalogue.generer(taille, 42);
+        TrigramIndex trigramIndex = new TrigramIndex();
+        OpeningHoursIndex openingHoursIndex = new OpeningHoursIndex();
+        GeoIndex geoIndex = new GeoIndex();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        searchEngine = new RestaurantSearchEngine(trigramIndex, openingHoursIndex, geoIndex);
+        jsonCache = new RestaurantJsonCache(objectMapper);
+        trigramIndex.reconstruire(restaurants);
+        openingHoursIndex.reconstruire(restaurants);
+        geoIndex.reconstruire(restaurants);
+        searchEngine.reconstruire(restaurants);
+        jsonCache.reconstruire(restaurants);
+        request = requete(scenario);
+    }
+
+    @Benchmark
+    public List<RestaurantDTO> rechercher() {
+        return searchEngine.rechercher(request);
+    }
+
+    @Benchmark
+    public JsonFragments premierePage() {
+        RestaurantSearchEngine.Selection selection = searchEngine.selectionner(request, null, TAILLE_PAGE);
+        return JsonFragments.tableau(jsonCache.fragments(selection.getIds(), selection.getDistances()));
+    }
+
+    static RechercheRestaurantRequest requete(String scenario) {
+        RechercheRestaurantRequest request = new RechercheRestaurantRequest();
+        switch (scenario) {
+            case "tous":
+                break;
+            case "cuisine_note":
+                request.setTypeCuisine("Marocaine");
+                request.setTri("note");
+                break;
+            case "nom_prix_asc":
+                request.setNom("sqala");
+                request.setTri("prix_asc");
+                break;
+            case "prix_popularite":
+                request.setPrixMin(new BigDecimal("100"));
+                request.setPrixMax(new BigDecimal("300"));
+                request.setNoteMin(3.5);
+                request.setTri("popularite");
+                break;
+            case "rayon_distance":
+                request.setLatitude(BigDecimal.valueOf(SyntheticCatalogue.LATITUDE_CENTRE));
+                request.setLongitude(BigDecimal.valueOf(SyntheticCatalogue.LONGITUDE_CENTRE));
+                request.setRayon(5.0);
+                request.setTri("distance");
+                break;
+            case "ouvert_capacite":
+                request.setOuvertMaintenant(true);
+                request.setCapaciteMin(50);
+                request.setTri("capacite");
+                break;
+            default:
+                throw new IllegalArgumentException("Scénario inconnu: " + scenario);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.restaurantbenchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.restaurantservice.dto.JsonFragments;
+import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.RestaurantJsonCache;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion entité → RestaurantDTO (versFiche, seule conversion depuis que les deux
+ * convertToDTO ont été fusionnés) et écriture d'une liste complète : Jackson sur les DTO
+ * contre la recopie des fiches pré-encodées du cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RestaurantSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int taille;
+
+    private List<Restaurant> restaurants;
+    private List<RestaurantDTO> fiches;
+    private long[] ids;
+    private ObjectWriter ecriture;
+    private RestaurantJsonCache jsonCache;
+    private final OutputStream sortie = OutputStream.nullOutputStream();
+
+    @Setup
+    public void preparer() {
+        restaurants = SyntheticCatalogue.generer(taille, 42);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        // Même flux réutilisé à chaque appel : Jackson ne doit pas le fermer
+        ecriture = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        jsonCache = new RestaurantJsonCache(objectMapper);
+        jsonCache.reconstruire(restaurants);
+        fiches = versFiches();
+        ids = restaurants.stream().mapToLong(Restaurant::getId).toArray();
+    }
+
+    @Benchmark
+    public List<RestaurantDTO> versFiches() {
+        List<RestaurantDTO> dtos = new ArrayList<>(restaurants.size());
+        for (Restaurant restaurant : restaurants) {
+            dtos.add(RestaurantSearchEngine.versFiche(restaurant));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public void jackson() throws IOException {
+        ecriture.writeValue(sortie, fiches);
+    }
+
+    @Benchmark
+    public void fragmentsPreEncodes() throws IOException {
+        JsonFragments.tableau(jsonCache.fragments(ids, null)).ecrire(sortie);
+    }
+}
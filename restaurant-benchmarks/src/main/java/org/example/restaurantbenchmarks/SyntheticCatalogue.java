@@ -0,0 +1,73 @@
+package org.example.restaurantbenchmarks;
+
+import org.example.restaurantservice.entity.Restaurant;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Catalogue de restaurants généré de façon déterministe (même graine, mêmes restaurants),
+ * réparti autour de Casablanca comme les données d'exemple du service.
+ */
+public final class SyntheticCatalogue {
+
+    public static final double LATITUDE_CENTRE = 33.5731;
+    public static final double LONGITUDE_CENTRE = -7.5898;
+
+    static final String[] CUISINES = {
+            "Marocaine", "Marocaine Traditionnelle", "Marocaine Moderne", "Française", "Italienne",
+            "Japonaise", "Espagnole", "Fusion", "Internationale", "Poissons/Fruits de Mer",
+            "Street Food Marocaine", "Méditerranéenne/Française"
+    };
+
+    private static final String[] PREFIXES = {
+            "Le", "La", "Dar", "Café", "Chez", "Villa", "Riad", "Bistro", "Maison", "Comptoir"
+    };
+    private static final String[] NOMS = {
+            "Sqala", "Mounia", "Corniche", "Medina", "Atlas", "Jardin", "Port", "Oliviers",
+            "Andalou", "Zellige", "Safran", "Cèdre", "Phare", "Souk", "Palmier", "Argan"
+    };
+    private static final String[] OUVERTURES = {"10:00", "11:00", "11:30", "12:00", "12:30", "19:00"};
+    private static final String[] FERMETURES = {"22:00", "22:30", "23:00", "23:30", "00:00", "01:00"};
+
+    private SyntheticCatalogue() {
+    }
+
+    public static List<Restaurant> generer(int taille, long graine) {
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+        LocalDateTime creation = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Restaurant> restaurants = new ArrayList<>(taille);
+        for (int i = 1; i <= taille; i++) {
+            String cuisine = CUISINES[aleatoire.nextInt(CUISINES.length)];
+            int nombreAvis = aleatoire.nextInt(10) == 0 ? 0 : aleatoire.nextInt(1, 500);
+            restaurants.add(Restaurant.builder()
+                    .id((long) i)
+                    .nom(PREFIXES[aleatoire.nextInt(PREFIXES.length)] + " "
+                            + NOMS[aleatoire.nextInt(NOMS.length)] + " " + i)
+                    .adresse(aleatoire.nextInt(1, 300) + " Boulevard d'Anfa, Casablanca")
+                    // ~25 km autour du centre
+                    .latitude(coordonnee(LATITUDE_CENTRE + aleatoire.nextDouble(-0.22, 0.22)))
+                    .longitude(coordonnee(LONGITUDE_CENTRE + aleatoire.nextDouble(-0.27, 0.27)))
+                    .typeCuisine(cuisine)
+                    .description("Cuisine " + cuisine.toLowerCase() + " servie dans un cadre chaleureux")
+                    .heureOuverture(OUVERTURES[aleatoire.nextInt(OUVERTURES.length)])
+                    .heureFermeture(FERMETURES[aleatoire.nextInt(FERMETURES.length)])
+                    .prixMoyen(BigDecimal.valueOf(aleatoire.nextInt(40, 600)))
+                    .noteMoyenne(nombreAvis == 0 ? 0.0 : Math.round(aleatoire.nextDouble(1, 5) * 10) / 10.0)
+                    .nombreAvis(nombreAvis)
+                    .capaciteTotale(aleatoire.nextInt(20) == 0 ? null : aleatoire.nextInt(10, 200))
+                    .createdAt(creation)
+                    .updatedAt(creation)
+                    .build());
+        }
+        return restaurants;
+    }
+
+    private static BigDecimal coordonnee(double valeur) {
+        return BigDecimal.valueOf(valeur).setScale(6, RoundingMode.HALF_UP);
+    }
+}
@@ -3,13 +3,16 @@ import lombok.RequiredArgsConstructor;
 import org.example.restaurantservice.entity.Restaurant;
 import org.example.restaurantservice.repository.RestaurantRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
+// Jeu de données d'exemple ; le profil generator le remplace par SyntheticDataGenerator
 @Component
+@Profile("!generator")
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
@@ -0,0 +1,285 @@
+package org.example.restaurantservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.restaurantservice.repository.RestaurantRepository;
+import org.example.restaurantservice.service.RatingAggregator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Catalogue synthétique à grande échelle (profil generator), remplaçant le jeu de données
+ * fixe de DataInitializer. Restaurants regroupés autour des grandes villes, nombre d'avis par
+ * restaurant suivant une loi de Zipf, notes centrées sur une qualité propre à chaque restaurant.
+ * Tout dépend de generateur.graine : deux exécutions avec la même graine produisent les mêmes lignes.
+ * Insertion par lots JDBC ; note moyenne et nombre d'avis des restaurants sont cohérents avec les avis.
+ */
+@Component
+@Profile("generator")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String INSERTION_RESTAURANT = "INSERT INTO restaurants (nom, adresse, latitude, longitude, "
+            + "type_cuisine, description, heure_ouverture, heure_fermeture, prix_moyen, note_moyenne, nombre_avis, "
+            + "capacite_totale, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERTION_AVIS =
+            "INSERT INTO avis (commentaire, note, auteur_nom, restaurant_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final Ville[] VILLES = {
+            new Ville("Casablanca", 33.5731, -7.5898, 35, 6.0),
+            new Ville("Marrakech", 31.6295, -7.9811, 18, 4.5),
+            new Ville("Rabat", 34.0209, -6.8416, 15, 4.0),
+            new Ville("Tanger", 35.7595, -5.8340, 12, 4.0),
+            new Ville("Fès", 34.0181, -5.0078, 10, 3.5),
+            new Ville("Agadir", 30.4278, -9.5981, 10, 3.5)
+    };
+    private static final String[] CUISINES = {
+            "Marocaine", "Marocaine Traditionnelle", "Marocaine Moderne", "Street Food Marocaine",
+            "Française", "Italienne", "Japonaise", "Espagnole", "Fusion", "Internationale",
+            "Poissons/Fruits de Mer", "Méditerranéenne/Française"
+    };
+    private static final String[] PREFIXES = {
+            "Le", "La", "Dar", "Café", "Chez", "Villa", "Riad", "Bistro", "Maison", "Comptoir"
+    };
+    private static final String[] NOMS = {
+            "Sqala", "Mounia", "Corniche", "Medina", "Atlas", "Jardin", "Port", "Oliviers",
+            "Andalou", "Zellige", "Safran", "Cèdre", "Phare", "Souk", "Palmier", "Argan"
+    };
+    private static final String[] RUES = {
+            "Boulevard Mohammed V", "Avenue Hassan II", "Rue de la Liberté", "Boulevard d'Anfa",
+            "Avenue des FAR", "Rue Ibn Battouta", "Boulevard Zerktouni", "Avenue Mohammed VI"
+    };
+    private static final String[] OUVERTURES = {"11:00", "11:30", "12:00", "12:00", "12:30"};
+    private static final String[] FERMETURES = {"22:00", "22:30", "23:00", "23:00", "23:30", "00:00"};
+    private static final String[] COMMENTAIRES = {
+            "Décevant, service très lent", "Plats tièdes et peu de choix", "Correct sans plus",
+            "Bonne cuisine, service attentionné", "Excellent, une adresse à recommander"
+    };
+    private static final String[] AUTEURS = {
+            "Mehdi", "Fatima", "Karim", "Amina", "Youssef", "Leila", "Hassan", "Salma", "Omar", "Nadia"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RestaurantRepository restaurantRepository;
+    private final RatingAggregator ratingAggregator;
+    private final long graine;
+    private final int nombreRestaurants;
+    private final long nombreAvis;
+    private final double exposantZipf;
+    private final int tailleLot;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  RestaurantRepository restaurantRepository,
+                                  RatingAggregator ratingAggregator,
+                                  @Value("${generateur.graine:42}") long graine,
+                                  @Value("${generateur.restaurants:10000}") int nombreRestaurants,
+                                  @Value("${generateur.avis:2000000}") long nombreAvis,
+                                  @Value("${generateur.zipf-exposant:1.0}") double exposantZipf,
+                                  @Value("${generateur.taille-lot:1000}") int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.restaurantRepository = restaurantRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.graine = graine;
+        this.nombreRestaurants = nombreRestaurants;
+        this.nombreAvis = nombreAvis;
+        this.exposantZipf = exposantZipf;
+        this.tailleLot = tailleLot;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (restaurantRepository.count() > 0) {
+            log.info("La base contient déjà {} restaurants : génération ignorée", restaurantRepository.count());
+            return;
+        }
+        long debut = System.currentTimeMillis();
+        SplittableRandom aleatoire = new SplittableRandom(graine);
+
+        // Nombre d'avis et qualité de chaque restaurant tirés d'abord : la fiche porte déjà ses agrégats
+        long[][] notes = repartirAvis(aleatoire.split());
+        long[] ids = insererRestaurants(aleatoire.split(), notes);
+        long avis = insererAvis(aleatoire.split(), ids, notes);
+
+        // Les agrégats chargés au démarrage ne voyaient pas les avis générés
+        ratingAggregator.recharger();
+        log.info("Génération terminée : {} restaurants, {} avis en {} ms (graine {})",
+                ids.length, avis, System.currentTimeMillis() - debut, graine);
+    }
+
+    // Histogramme des notes (1 à 5) de chaque restaurant
+    private long[][] repartirAvis(SplittableRandom aleatoire) {
+        long[][] notes = new long[nombreRestaurants][5];
+        double[] qualites = new double[nombreRestaurants];
+        for (int i = 0; i < nombreRestaurants; i++) {
+            qualites[i] = Math.max(1.5, Math.min(5.0, 3.9 + 0.5 * aleatoire.nextGaussian()));
+        }
+        Zipf zipf = new Zipf(nombreRestaurants, exposantZipf, aleatoire);
+        for (long n = 0; n < nombreAvis; n++) {
+            int restaurant = zipf.tirer(aleatoire);
+            int note = (int) Math.round(qualites[restaurant] + 0.9 * aleatoire.nextGaussian());
+            notes[restaurant][Math.max(1, Math.min(5, note)) - 1]++;
+        }
+        return notes;
+    }
+
+    private long[] insererRestaurants(SplittableRandom aleatoire, long[][] notes) {
+        int[] poidsVilles = Arrays.stream(VILLES).mapToInt(ville -> ville.poids).toArray();
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Object[]> lot = new ArrayList<>(tailleLot);
+        for (int i = 0; i < nombreRestaurants; i++) {
+            Ville ville = VILLES[choisir(poidsVilles, aleatoire)];
+            double latitude = ville.latitude + aleatoire.nextGaussian() * ville.dispersionKm / 111.0;
+            double longitude = ville.longitude + aleatoire.nextGaussian() * ville.dispersionKm
+                    / (111.0 * Math.cos(Math.toRadians(ville.latitude)));
+            String cuisine = CUISINES[aleatoire.nextInt(CUISINES.length)];
+            boolean soirSeulement = aleatoire.nextInt(10) == 0;
+            double prix = Math.max(40, Math.min(1500, Math.exp(Math.log(180) + 0.5 * aleatoire.nextGaussian())));
+            long nombre = Arrays.stream(notes[i]).sum();
+            LocalDateTime creation = maintenant.minusDays(aleatoire.nextInt(30, 1500));
+
+            lot.add(new Object[]{
+                    PREFIXES[aleatoire.nextInt(PREFIXES.length)] + " " + NOMS[aleatoire.nextInt(NOMS.length)],
+                    aleatoire.nextInt(1, 400) + " " + RUES[aleatoire.nextInt(RUES.length)] + ", " + ville.nom,
+                    BigDecimal.valueOf(latitude).setScale(6, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(longitude).setScale(6, RoundingMode.HALF_UP),
+                    cuisine,
+                    "Cuisine " + cuisine.toLowerCase() + " au cœur de " + ville.nom,
+                    soirSeulement ? "19:00" : OUVERTURES[aleatoire.nextInt(OUVERTURES.length)],
+                    soirSeulement ? "01:00" : FERMETURES[aleatoire.nextInt(FERMETURES.length)],
+                    BigDecimal.valueOf(Math.round(prix / 10) * 10),
+                    nombre == 0 ? 0.0 : moyenne(notes[i], nombre),
+                    (int) nombre,
+                    capacite(graine, i),
+                    Timestamp.valueOf(creation),
+                    Timestamp.valueOf(creation)
+            });
+            if (lot.size() == tailleLot) {
+                inserer(INSERTION_RESTAURANT, lot);
+            }
+        }
+        inserer(INSERTION_RESTAURANT, lot);
+        // Identifiants attribués par la base, dans l'ordre d'insertion
+        return jdbcTemplate.queryForList("SELECT id FROM restaurants ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long insererAvis(SplittableRandom aleatoire, long[] ids, long[][] notes) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Object[]> lot = new ArrayList<>(tailleLot);
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            for (int note = 1; note <= 5; note++) {
+                for (long n = 0; n < notes[i][note - 1]; n++) {
+                    LocalDateTime date = maintenant.minusMinutes(aleatoire.nextLong(2L * 365 * 24 * 60));
+                    lot.add(new Object[]{COMMENTAIRES[note - 1], note,
+                            AUTEURS[aleatoire.nextInt(AUTEURS.length)] + " " + (char) ('A' + aleatoire.nextInt(26)) + ".",
+                            ids[i], Timestamp.valueOf(date)});
+                    if (lot.size() == tailleLot) {
+                        total += inserer(INSERTION_AVIS, lot);
+                        if (total % (100L * tailleLot) == 0) {
+                            log.info("{} avis insérés", total);
+                        }
+                    }
+                }
+            }
+        }
+        return total + inserer(INSERTION_AVIS, lot);
+    }
+
+    private int inserer(String insertion, List<Object[]> lot) {
+        if (lot.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(insertion, lot));
+        int taille = lot.size();
+        lot.clear();
+        return taille;
+    }
+
+    // Capacité du restaurant de rang donné (0..n-1, identifiant rang + 1), tirée de la graine seule :
+    // le générateur de reservation-service applique la même formule pour ne pas remplir les créneaux
+    // à venir au-delà de la capacité. Toute modification doit y être reportée.
+    private static Integer capacite(long graine, int rang) {
+        SplittableRandom tirage = new SplittableRandom(graine * 1_000_003L + rang);
+        return tirage.nextInt(20) == 0 ? null : tirage.nextInt(20, 150);
+    }
+
+    private static double moyenne(long[] notes, long nombre) {
+        long somme = 0;
+        for (int i = 0; i < notes.length; i++) {
+            somme += (i + 1) * notes[i];
+        }
+        return (double) somme / nombre;
+    }
+
+    private static int choisir(int[] poids, SplittableRandom aleatoire) {
+        int tirage = aleatoire.nextInt(Arrays.stream(poids).sum());
+        for (int i = 0; i < poids.length; i++) {
+            tirage -= poids[i];
+            if (tirage < 0) {
+                return i;
+            }
+        }
+        return poids.length - 1;
+    }
+
+    private static final class Ville {
+        final String nom;
+        final double latitude;
+        final double longitude;
+        final int poids;
+        final double dispersionKm;
+
+        Ville(String nom, double latitude, double longitude, int poids, double dispersionKm) {
+            this.nom = nom;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.poids = poids;
+            this.dispersionKm = dispersionKm;
+        }
+    }
+
+    // Loi de Zipf sur n éléments, rangs attribués par une permutation aléatoire :
+    // les restaurants les plus commentés ne sont pas les premiers insérés
+    private static final class Zipf {
+        private final double[] cumul;
+        private final int[] elements;
+
+        Zipf(int n, double exposant, SplittableRandom aleatoire) {
+            cumul = new double[n];
+            elements = new int[n];
+            double somme = 0;
+            for (int rang = 0; rang < n; rang++) {
+                somme += 1 / Math.pow(rang + 1, exposant);
+                cumul[rang] = somme;
+                elements[rang] = rang;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = aleatoire.nextInt(i + 1);
+                int element = elements[i];
+                elements[i] = elements[j];
+                elements[j] = element;
+            }
+        }
+
+        int tirer(SplittableRandom aleatoire) {
+            int rang = Arrays.binarySearch(cumul, aleatoire.nextDouble(cumul[cumul.length - 1]));
+            return elements[rang >= 0 ? rang : Math.min(-rang - 1, cumul.length - 1)];
+        }
+    }
+}
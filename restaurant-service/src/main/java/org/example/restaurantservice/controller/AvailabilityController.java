@@ -1,6 +1,9 @@
 package org.example.restaurantservice.controller;
 import lombok.RequiredArgsConstructor;
-import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.dto.DisponibiliteBatchRequest;
+import org.example.restaurantservice.dto.DisponibiliteDTO;
+import org.example.restaurantservice.dto.ReservationCapaciteRequest;
+import org.example.restaurantservice.service.AvailabilityService;
 import org.example.restaurantservice.service.RestaurantService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +12,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +22,7 @@ import java.util.Map;
 public class AvailabilityController {
 
     private final RestaurantService restaurantService;
+    private final AvailabilityService availabilityService;
 
     @GetMapping("/{id}/availability")
     public ResponseEntity<Map<String, Object>> checkAvailability(
@@ -27,89 +32,61 @@ public class AvailabilityController {
 
         Map<String, Object> response = new HashMap<>();
 
+        // Parsing de la date
+        LocalDateTime reservationTime;
         try {
-            // Validation des paramètres
-            if (guests == null || guests < 1) {
-                response.put("available", false);
-                response.put("message", "Nombre d'invités invalide");
-                return ResponseEntity.ok(response);
-            }
-
-            // Parsing de la date
-            LocalDateTime reservationTime;
-            try {
-                reservationTime = LocalDateTime.parse(dateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            } catch (DateTimeParseException e) {
-                response.put("available", false);
-                response.put("message", "Format de date invalide");
-                return ResponseEntity.ok(response);
-            }
-
-            // Récupération du restaurant
-            Restaurant restaurant = restaurantService.findById(id);
-
-            // Vérification de la capacité
-            if (restaurant.getCapaciteTotale() != null && guests > restaurant.getCapaciteTotale()) {
-                response.put("available", false);
-                response.put("message", "Capacité insuffisante");
-                return ResponseEntity.ok(response);
-            }
-
-            // Vérification si c'est dans le futur
-            if (reservationTime.isBefore(LocalDateTime.now())) {
-                response.put("available", false);
-                response.put("message", "La réservation doit être dans le futur");
-                return ResponseEntity.ok(response);
-            }
-
-            // Simulation de disponibilité
-            boolean isAvailable = simulateAvailability(restaurant, reservationTime, guests);
-
-            if (isAvailable) {
-                response.put("available", true);
-                response.put("message", "Disponible");
-                response.put("restaurantName", restaurant.getNom());
-                response.put("capacity", restaurant.getCapaciteTotale());
-                response.put("priceRange", restaurant.getPrixMoyen());
-            } else {
-                response.put("available", false);
-                response.put("message", "Pas de disponibilité pour cette date");
-            }
-
-            return ResponseEntity.ok(response);
-
-        } catch (RuntimeException e) {
-            response.put("available", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
+            reservationTime = LocalDateTime.parse(dateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
             response.put("available", false);
-            response.put("message", "Erreur interne");
+            response.put("message", "Format de date invalide");
             return ResponseEntity.ok(response);
         }
-    }
 
-    @GetMapping("/{id}/exists")
-    public ResponseEntity<Boolean> restaurantExists(@PathVariable Long id) {
-        try {
-            restaurantService.findById(id);
-            return ResponseEntity.ok(true);
-        } catch (Exception e) {
-            return ResponseEntity.ok(false);
+        AvailabilityService.Disponibilite disponibilite = availabilityService.verifier(id, reservationTime, guests);
+        response.put("available", disponibilite.isDisponible());
+        response.put("message", disponibilite.getMessage());
+        if (disponibilite.isDisponible()) {
+            response.put("restaurantName", disponibilite.getRestaurant().getNom());
+            response.put("capacity", disponibilite.getRestaurant().getCapaciteTotale());
+            response.put("priceRange", disponibilite.getRestaurant().getPrixMoyen());
+            response.put("remainingSeats", disponibilite.getPlacesRestantes());
         }
+        return ResponseEntity.ok(response);
     }
 
-    private boolean simulateAvailability(Restaurant restaurant, LocalDateTime dateTime, Integer guests) {
-        int hour = dateTime.getHour();
-        if (hour >= 22) {
-            return false;
-        }
+    @PostMapping("/availability/batch")
+    public ResponseEntity<List<DisponibiliteDTO>> checkAvailabilityBatch(
+            @RequestBody DisponibiliteBatchRequest request) {
+        return ResponseEntity.ok(availabilityService.verifierPlusieurs(request));
+    }
 
-        String day = dateTime.getDayOfWeek().toString();
-        if (day.equals("SATURDAY") || day.equals("SUNDAY")) {
-            return Math.random() > 0.3;
+    @PostMapping("/{id}/availability/reserve")
+    public ResponseEntity<Map<String, Object>> reserveSeats(
+            @PathVariable Long id,
+            @RequestBody ReservationCapaciteRequest request) {
+
+        AvailabilityService.Disponibilite disponibilite = availabilityService.reserver(id, request);
+        Map<String, Object> response = new HashMap<>();
+        response.put("reserved", disponibilite.isDisponible());
+        response.put("message", disponibilite.getMessage());
+        if (disponibilite.isDisponible()) {
+            response.put("remainingSeats", disponibilite.getPlacesRestantes());
         }
+        return ResponseEntity.ok(response);
+    }
 
-        return true;
+    @PostMapping("/{id}/availability/release")
+    public ResponseEntity<Map<String, Object>> releaseSeats(
+            @PathVariable Long id,
+            @RequestBody ReservationCapaciteRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("released", availabilityService.liberer(request.getReservationId()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/exists")
+    public ResponseEntity<Boolean> restaurantExists(@PathVariable Long id) {
+        return ResponseEntity.ok(restaurantService.existsById(id));
     }
-}
\ No newline at end of file
+}
@@ -1,32 +1,70 @@
 package org.example.restaurantservice.controller;
 import lombok.RequiredArgsConstructor;
 import org.example.restaurantservice.dto.AvisDTO;
+import org.example.restaurantservice.dto.ImportAvisResultDTO;
+import org.example.restaurantservice.dto.PageCurseur;
+import org.example.restaurantservice.dto.RepartitionNotesDTO;
+import org.example.restaurantservice.service.AvisImportService;
 import org.example.restaurantservice.service.AvisService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/avis")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = AvisController.EN_TETE_CURSEUR)
 @RequiredArgsConstructor
 public class AvisController {
 
+    static final String EN_TETE_CURSEUR = "X-Next-Cursor";
+    private static final int TAILLE_PAR_DEFAUT = 20;
+
     private final AvisService avisService;
+    private final AvisImportService avisImportService;
 
     @PostMapping
     public ResponseEntity<AvisDTO> ajouterAvis(@RequestBody AvisDTO avisDTO) {
         return ResponseEntity.ok(avisService.ajouterAvis(avisDTO));
     }
 
+    // Tableau JSON ou NDJSON (un avis par ligne), lu en flux
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportAvisResultDTO> importerAvis(InputStream flux) {
+        return ResponseEntity.ok(avisImportService.importer(flux));
+    }
+
+    // Avis du plus récent au plus ancien, tous sans cursor ni size ; paginés dès que l'un est fourni,
+    // X-Next-Cursor donnant alors la page suivante
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<AvisDTO>> getAvisByRestaurant(@PathVariable Long restaurantId) {
-        return ResponseEntity.ok(avisService.getAvisByRestaurant(restaurantId));
+    public ResponseEntity<List<AvisDTO>> getAvisByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(avisService.getAvisByRestaurant(restaurantId, since));
+        }
+        PageCurseur<AvisDTO> page = avisService.getAvisByRestaurant(restaurantId, cursor, since,
+                size != null ? size : TAILLE_PAR_DEFAUT);
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+        if (page.getCurseurSuivant() != null) {
+            reponse.header(EN_TETE_CURSEUR, page.getCurseurSuivant());
+        }
+        return reponse.body(page.getElements());
     }
 
     @GetMapping("/restaurant/{restaurantId}/top5")
     public ResponseEntity<List<AvisDTO>> getTop5AvisByRestaurant(@PathVariable Long restaurantId) {
         return ResponseEntity.ok(avisService.getTop5AvisByRestaurant(restaurantId));
     }
+
+    @GetMapping("/restaurant/{restaurantId}/repartition")
+    public ResponseEntity<RepartitionNotesDTO> getRepartitionNotes(@PathVariable Long restaurantId) {
+        return ResponseEntity.ok(avisService.getRepartitionNotes(restaurantId));
+    }
 }
\ No newline at end of file
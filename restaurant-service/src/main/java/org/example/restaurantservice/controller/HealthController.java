@@ -1,4 +1,5 @@
 package org.example.restaurantservice.controller;
+import org.example.restaurantservice.service.CapacityLedger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,9 @@ public class HealthController {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private CapacityLedger capacityLedger;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
@@ -23,6 +27,7 @@ public class HealthController {
         response.put("service", "Restaurant Service");
         response.put("port", environment.getProperty("server.port"));
         response.put("timestamp", System.currentTimeMillis());
+        response.put("liberationsEnTrop", capacityLedger.liberationsEnTrop());
         return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
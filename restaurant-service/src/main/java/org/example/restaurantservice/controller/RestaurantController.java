@@ -1,200 +1,236 @@
 package org.example.restaurantservice.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.restaurantservice.dto.ChangementsCatalogueDTO;
+import org.example.restaurantservice.dto.JsonFragments;
+import org.example.restaurantservice.dto.PageCurseur;
 import org.example.restaurantservice.dto.RechercheRestaurantRequest;
-import org.example.restaurantservice.dto.RestaurantDTO;
-import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.dto.SuggestionDTO;
+import org.example.restaurantservice.index.RestaurantStatistics;
 import org.example.restaurantservice.service.RestaurantService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
 
 @RestController
 @RequestMapping("/api/restaurants")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = AvisController.EN_TETE_CURSEUR)
 @RequiredArgsConstructor
 public class RestaurantController {
 
+    private static final int TAILLE_PAR_DEFAUT = 20;
+
     private final RestaurantService restaurantService;
 
+    // Listes paginées dès que size ou cursor est fourni ; X-Next-Cursor donne la page suivante
     // CORRECTION 1: Utiliser DTO au lieu d'entité
     @GetMapping
-    public ResponseEntity<List<RestaurantDTO>> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantService.findAll();
-        List<RestaurantDTO> restaurantDTOs = restaurants.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(restaurantDTOs);
+    public ResponseEntity<JsonFragments> getAllRestaurants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag(versionCatalogue()))) {
+            return null;
+        }
+        if (cursor != null || size != null) {
+            return page(new RechercheRestaurantRequest(), cursor, size, fields);
+        }
+        return ResponseEntity.ok(champs(restaurantService.listerTous(), fields));
+    }
+
+    // Tout le catalogue, écrit au fil d'un curseur base plutôt que construit en mémoire
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRestaurants(@RequestParam(required = false) String fields) {
+        // Validé ici : une fois le flux commencé, il est trop tard pour répondre 400
+        int champs = restaurantService.masqueChamps(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(sortie -> restaurantService.ecrireTous(sortie, champs));
+    }
+
+    // Restaurants modifiés ou supprimés depuis une version du catalogue (suit updatedAt, en millisecondes)
+    @GetMapping("/changes")
+    public ResponseEntity<ChangementsCatalogueDTO> getChangements(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(restaurantService.getChangements(since));
     }
 
     // CORRECTION 2: Utiliser DTO au lieu d'entité
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id) {
-        Restaurant restaurant = restaurantService.findById(id);
-        return ResponseEntity.ok(convertToDTO(restaurant));
+    public ResponseEntity<JsonFragments> getRestaurantById(@PathVariable Long id, WebRequest webRequest) {
+        OptionalLong version = restaurantService.getVersionRestaurant(id);
+        if (version.isPresent() && webRequest.checkNotModified(etag("r" + id + "-" + version.getAsLong()))) {
+            return null;
+        }
+        return ResponseEntity.ok(restaurantService.getFiche(id)
+                .orElseThrow(() -> new RuntimeException("Restaurant non trouvé avec l'ID: " + id)));
     }
 
     // CORRECTION 3: Utiliser DTO au lieu d'entité
     @GetMapping("/search/nom/{nom}")
-    public ResponseEntity<List<RestaurantDTO>> searchByNom(@PathVariable String nom) {
-        List<Restaurant> restaurants = restaurantService.searchByNom(nom);
-        List<RestaurantDTO> restaurantDTOs = restaurants.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(restaurantDTOs);
+    public ResponseEntity<JsonFragments> searchByNom(
+            @PathVariable String nom,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        if (cursor != null || size != null) {
+            RechercheRestaurantRequest request = new RechercheRestaurantRequest();
+            request.setNom(nom);
+            return page(request, cursor, size, fields);
+        }
+        return ResponseEntity.ok(champs(restaurantService.rechercherParNom(nom), fields));
     }
 
     // CORRECTION 4: Utiliser DTO au lieu d'entité
     @GetMapping("/cuisine/{typeCuisine}")
-    public ResponseEntity<List<RestaurantDTO>> getByCuisine(@PathVariable String typeCuisine) {
-        List<Restaurant> restaurants = restaurantService.findByTypeCuisine(typeCuisine);
-        List<RestaurantDTO> restaurantDTOs = restaurants.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(restaurantDTOs);
+    public ResponseEntity<JsonFragments> getByCuisine(
+            @PathVariable String typeCuisine,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        if (cursor != null || size != null) {
+            RechercheRestaurantRequest request = new RechercheRestaurantRequest();
+            request.setTypeCuisine(typeCuisine);
+            return page(request, cursor, size, fields);
+        }
+        return ResponseEntity.ok(champs(restaurantService.rechercherParTypeCuisine(typeCuisine), fields));
     }
 
     @PostMapping("/recherche")
-    public ResponseEntity<List<RestaurantDTO>> rechercherRestaurants(
-            @RequestBody RechercheRestaurantRequest request) {
-        return ResponseEntity.ok(restaurantService.rechercherRestaurants(request));
+    public ResponseEntity<JsonFragments> rechercherRestaurants(
+            @RequestBody RechercheRestaurantRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        if (cursor != null || size != null) {
+            return page(request, cursor, size, fields);
+        }
+        return ResponseEntity.ok(champs(restaurantService.rechercher(request), fields));
     }
 
     // CORRECTION 5: Utiliser DTO au lieu d'entité
     @GetMapping("/top-rated")
-    public ResponseEntity<List<RestaurantDTO>> getTopRated() {
-        List<Restaurant> restaurants = restaurantService.getTopRatedRestaurants();
-        List<RestaurantDTO> restaurantDTOs = restaurants.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(restaurantDTOs);
+    public ResponseEntity<JsonFragments> getTopRated(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        if (cursor != null || size != null) {
+            // Même classement : restaurants notés, note décroissante puis identifiant
+            RechercheRestaurantRequest request = new RechercheRestaurantRequest();
+            request.setTri("note");
+            request.setNoteMin(0.0);
+            return page(request, cursor, size, fields);
+        }
+        return ResponseEntity.ok(champs(restaurantService.getMieuxNotes(limit), fields));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggerer(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(restaurantService.suggerer(q, limit));
     }
 
     @GetMapping("/cuisines")
-    public ResponseEntity<List<String>> getAllCuisines() {
+    public ResponseEntity<List<String>> getAllCuisines(WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag(versionCatalogue()))) {
+            return null;
+        }
         return ResponseEntity.ok(restaurantService.getAllTypeCuisine());
     }
 
     @GetMapping("/populaires")
-    public ResponseEntity<List<RestaurantDTO>> getRestaurantsPopulaires(
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(restaurantService.getRestaurantsPopulaires(limit));
+    public ResponseEntity<JsonFragments> getRestaurantsPopulaires(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(champs(restaurantService.getRestaurantsPopulaires(limit), fields));
     }
 
     @GetMapping("/proches")
-    public ResponseEntity<List<RestaurantDTO>> getRestaurantsProches(
+    public ResponseEntity<JsonFragments> getRestaurantsProches(
             @RequestParam BigDecimal latitude,
             @RequestParam BigDecimal longitude,
-            @RequestParam(defaultValue = "5.0") Double rayon) {
-        return ResponseEntity.ok(restaurantService.getRestaurantsProches(latitude, longitude, rayon));
+            @RequestParam(defaultValue = "5.0") Double rayon,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(champs(
+                restaurantService.getRestaurantsProches(latitude, longitude, rayon, limit), fields));
     }
 
     @GetMapping("/recommandations")
-    public ResponseEntity<List<RestaurantDTO>> getRecommandations(
+    public ResponseEntity<JsonFragments> getRecommandations(
             @RequestParam(required = false) String typeCuisine,
-            @RequestParam(required = false) Double noteMin) {
-        return ResponseEntity.ok(restaurantService.getRecommandations(typeCuisine, noteMin));
+            @RequestParam(required = false) Double noteMin,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(champs(restaurantService.getRecommandations(typeCuisine, noteMin), fields));
     }
 
     @GetMapping("/filtres/avances")
-    public ResponseEntity<Map<String, Object>> getFiltresAvances() {
-        List<String> cuisines = restaurantService.getAllTypeCuisine();
-
-        // Calculer les plages de prix
-        List<Restaurant> restaurants = restaurantService.findAll();
-        BigDecimal prixMin = restaurants.stream()
-                .map(Restaurant::getPrixMoyen)
-                .filter(p -> p != null)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-        BigDecimal prixMax = restaurants.stream()
-                .map(Restaurant::getPrixMoyen)
-                .filter(p -> p != null)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.valueOf(1000));
-
-        // Calculer les plages de capacité
-        Integer capaciteMin = restaurants.stream()
-                .map(Restaurant::getCapaciteTotale)
-                .filter(c -> c != null)
-                .min(Integer::compareTo)
-                .orElse(0);
-        Integer capaciteMax = restaurants.stream()
-                .map(Restaurant::getCapaciteTotale)
-                .filter(c -> c != null)
-                .max(Integer::compareTo)
-                .orElse(100);
+    public ResponseEntity<Map<String, Object>> getFiltresAvances(WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag(versionCatalogue()))) {
+            return null;
+        }
+        RestaurantStatistics.Instantane stats = restaurantService.getStatistiques();
 
         return ResponseEntity.ok(Map.of(
-                "cuisines", cuisines,
-                "prixMin", prixMin,
-                "prixMax", prixMax,
-                "capaciteMin", capaciteMin,
-                "capaciteMax", capaciteMax,
+                "cuisines", stats.getCuisines(),
+                "prixMin", stats.getPrixMin(),
+                "prixMax", stats.getPrixMax(),
+                "capaciteMin", stats.getCapaciteMin(),
+                "capaciteMax", stats.getCapaciteMax(),
                 "noteMax", 5.0,
                 "noteMin", 0.0
         ));
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getStats() {
-        List<Restaurant> restaurants = restaurantService.findAll();
-
-        long totalRestaurants = restaurants.size();
-        double noteMoyenneGenerale = restaurants.stream()
-                .mapToDouble(Restaurant::getNoteMoyenne)
-                .average()
-                .orElse(0.0);
-
-        // Compter par type de cuisine
-        Map<String, Long> statsCuisines = restaurants.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        Restaurant::getTypeCuisine,
-                        java.util.stream.Collectors.counting()
-                ));
-
-        // Restaurants ouverts maintenant
-        long ouvertsMaintenant = restaurants.stream()
-                .filter(r -> {
-                    try {
-                        return restaurantService.estOuvertMaintenant(r);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
+    public ResponseEntity<Map<String, Object>> getStats(WebRequest webRequest) {
+        // Le nombre d'établissements ouverts varie avec l'heure, sans écriture au catalogue
+        long ouverts = restaurantService.compterOuvertsMaintenant();
+        if (webRequest.checkNotModified(etag(versionCatalogue() + "-" + ouverts))) {
+            return null;
+        }
+        RestaurantStatistics.Instantane stats = restaurantService.getStatistiques();
 
         return ResponseEntity.ok(Map.of(
-                "totalRestaurants", totalRestaurants,
-                "noteMoyenneGenerale", Math.round(noteMoyenneGenerale * 100.0) / 100.0,
-                "statsCuisines", statsCuisines,
-                "ouvertsMaintenant", ouvertsMaintenant,
-                "totalAvis", restaurants.stream()
-                        .mapToInt(Restaurant::getNombreAvis)
-                        .sum()
+                "totalRestaurants", stats.getTotalRestaurants(),
+                "noteMoyenneGenerale", stats.getNoteMoyenneGenerale(),
+                "statsCuisines", stats.getStatsCuisines(),
+                "ouvertsMaintenant", ouverts,
+                "totalAvis", stats.getTotalAvis()
         ));
     }
 
-    // Méthode de conversion d'entité vers DTO
-    private RestaurantDTO convertToDTO(Restaurant restaurant) {
-        return RestaurantDTO.builder()
-                .id(restaurant.getId())
-                .nom(restaurant.getNom())
-                .adresse(restaurant.getAdresse())
-                .latitude(restaurant.getLatitude())
-                .longitude(restaurant.getLongitude())
-                .typeCuisine(restaurant.getTypeCuisine())
-                .description(restaurant.getDescription())
-                .heureOuverture(restaurant.getHeureOuverture())
-                .heureFermeture(restaurant.getHeureFermeture())
-                .prixMoyen(restaurant.getPrixMoyen())
-                .noteMoyenne(restaurant.getNoteMoyenne())
-                .nombreAvis(restaurant.getNombreAvis())
-                .capaciteTotale(restaurant.getCapaciteTotale())
-                .build();
+    private String versionCatalogue() {
+        return "c" + restaurantService.getVersionCatalogue();
+    }
+
+    // ETag faible : une même version est servie en JSON ou en CBOR, compressée ou non
+    private static String etag(String version) {
+        return "W/\"" + version + "\"";
+    }
+
+    // fields=id,nom,latitude,longitude : seules ces propriétés du DTO sont écrites
+    private JsonFragments champs(JsonFragments fiches, String fields) {
+        return fields != null ? fiches.restreindre(restaurantService.masqueChamps(fields)) : fiches;
+    }
+
+    private ResponseEntity<JsonFragments> page(RechercheRestaurantRequest request, String cursor, Integer size,
+                                               String fields) {
+        PageCurseur<JsonFragments.Fragment> page = restaurantService.rechercherPage(request, cursor,
+                size != null ? size : TAILLE_PAR_DEFAUT);
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok();
+        if (page.getCurseurSuivant() != null) {
+            reponse.header(AvisController.EN_TETE_CURSEUR, page.getCurseurSuivant());
+        }
+        return reponse.body(champs(JsonFragments.tableau(page.getElements()), fields));
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.example.restaurantservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Flux de changements du catalogue, pour les répliques tenues par les autres services
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangementsCatalogueDTO {
+    private long version; // à renvoyer en since au prochain appel
+    private boolean complet; // tout le catalogue : un restaurant absent de la liste n'existe plus
+    private List<Fiche> restaurants;
+    private List<Long> supprimes;
+
+    // Champs utiles pour valider une réservation
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Fiche {
+        private Long id;
+        private Integer capaciteTotale;
+        private String heureOuverture;
+        private String heureFermeture;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Soit une liste explicite de demandes, soit des restaurants croisés avec une plage horaire
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibiliteBatchRequest {
+    private List<Demande> demandes;
+    private List<Long> restaurantIds;
+    private LocalDateTime debut;
+    private LocalDateTime fin; // incluse
+    private Integer pasMinutes; // 30 par défaut
+    private Integer guests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Demande {
+        private Long restaurantId;
+        private LocalDateTime dateTime;
+        private Integer guests;
+    }
+}
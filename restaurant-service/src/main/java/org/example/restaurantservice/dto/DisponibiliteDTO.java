@@ -0,0 +1,23 @@
+package org.example.restaurantservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.restaurantservice.enums.AvailabilityStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DisponibiliteDTO {
+    private Long restaurantId;
+    private LocalDateTime dateTime;
+    private Integer guests;
+    private AvailabilityStatus status;
+    private Integer remainingSeats;
+}
@@ -0,0 +1,26 @@
+package org.example.restaurantservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportAvisResultDTO {
+    private long recus;
+    private long importes;
+    private long rejetes;
+    private List<Erreur> erreurs; // limitées aux premières rencontrées
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erreur {
+        private long position; // rang de l'avis dans le flux, à partir de 1
+        private String message;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.restaurantservice.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Réponse JSON assemblée à partir de fiches déjà encodées : un objet seul ou un tableau,
+ * recopié octet par octet dans le flux de sortie sans repasser par Jackson.
+ * Un masque de champs (bit i pour la i-ème propriété du DTO) restreint chaque objet.
+ * Les autres formats (CBOR) passent par Jackson, qui relit ces octets JSON.
+ */
+@Getter
+@JsonSerialize(using = JsonFragments.Serialiseur.class)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class JsonFragments {
+
+    public static final int TOUS_LES_CHAMPS = -1;
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<Fragment> fragments;
+    private final boolean tableau;
+    private final int champs;
+
+    public static JsonFragments tableau(List<Fragment> fragments) {
+        return new JsonFragments(fragments, true, TOUS_LES_CHAMPS);
+    }
+
+    public static JsonFragments objet(Fragment fragment) {
+        return new JsonFragments(List.of(fragment), false, TOUS_LES_CHAMPS);
+    }
+
+    public JsonFragments restreindre(int champs) {
+        return new JsonFragments(fragments, tableau, champs);
+    }
+
+    public long taille() {
+        long taille = tableau ? 2 + Math.max(0, fragments.size() - 1) : 0;
+        for (Fragment fragment : fragments) {
+            taille += fragment.taille(champs);
+        }
+        return taille;
+    }
+
+    public void ecrire(OutputStream sortie) throws IOException {
+        if (tableau) {
+            sortie.write('[');
+        }
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                sortie.write(',');
+            }
+            fragments.get(i).ecrire(sortie, champs);
+        }
+        if (tableau) {
+            sortie.write(']');
+        }
+    }
+
+    public static class Serialiseur extends StdSerializer<JsonFragments> {
+        private static final JsonFactory JSON = new JsonFactory();
+
+        public Serialiseur() {
+            super(JsonFragments.class);
+        }
+
+        @Override
+        public void serialize(JsonFragments fragments, JsonGenerator generateur, SerializerProvider provider)
+                throws IOException {
+            ByteArrayOutputStream json = new ByteArrayOutputStream((int) fragments.taille());
+            fragments.ecrire(json);
+            try (JsonParser parser = JSON.createParser(json.toByteArray())) {
+                parser.nextToken();
+                generateur.copyCurrentStructure(parser);
+            }
+        }
+    }
+
+    /**
+     * Fiche encodée jusqu'à la clé "distance" (dernière propriété) incluse, avec la position
+     * de chaque propriété : la distance, propre à la requête, est écrite à la volée et
+     * une sélection de champs se résume à recopier les tranches retenues.
+     */
+    @AllArgsConstructor
+    public static class Fragment {
+        private final byte[] debut;
+        private final int[] proprietes;
+        private final Double distance;
+
+        long taille(int champs) {
+            if (champs == TOUS_LES_CHAMPS) {
+                return debut.length + valeurDistance().length + 1;
+            }
+            long taille = 2;
+            int retenues = 0;
+            for (int p = 0; p < proprietes.length; p++) {
+                if ((champs & (1 << p)) != 0) {
+                    taille += fin(p) - proprietes[p] + (p == proprietes.length - 1 ? valeurDistance().length : 0);
+                    retenues++;
+                }
+            }
+            return taille + Math.max(0, retenues - 1);
+        }
+
+        void ecrire(OutputStream sortie, int champs) throws IOException {
+            if (champs == TOUS_LES_CHAMPS) {
+                sortie.write(debut);
+                sortie.write(valeurDistance());
+                sortie.write('}');
+                return;
+            }
+            sortie.write('{');
+            boolean premier = true;
+            for (int p = 0; p < proprietes.length; p++) {
+                if ((champs & (1 << p)) == 0) {
+                    continue;
+                }
+                if (!premier) {
+                    sortie.write(',');
+                }
+                premier = false;
+                sortie.write(debut, proprietes[p], fin(p) - proprietes[p]);
+                if (p == proprietes.length - 1) {
+                    sortie.write(valeurDistance());
+                }
+            }
+            sortie.write('}');
+        }
+
+        // Une propriété s'arrête à la virgule qui précède la suivante
+        private int fin(int propriete) {
+            return propriete + 1 < proprietes.length ? proprietes[propriete + 1] - 1 : debut.length;
+        }
+
+        private byte[] valeurDistance() {
+            return distance != null ? distance.toString().getBytes(StandardCharsets.US_ASCII) : NULL;
+        }
+    }
+}
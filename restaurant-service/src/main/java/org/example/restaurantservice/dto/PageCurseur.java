@@ -0,0 +1,15 @@
+package org.example.restaurantservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Une page de résultats et le curseur opaque de la suivante (null en fin de liste)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCurseur<T> {
+    private List<T> elements;
+    private String curseurSuivant;
+}
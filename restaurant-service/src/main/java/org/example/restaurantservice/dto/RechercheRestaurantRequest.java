@@ -15,6 +15,7 @@ public class RechercheRestaurantRequest {
     private Double rayon; // en kilomètres
     private String typeCuisine;
     private String nom;
+    private String adresse; // Sous-chaîne : rue, quartier ou ville
     private Double noteMin;
     private BigDecimal prixMin;
     private BigDecimal prixMax;
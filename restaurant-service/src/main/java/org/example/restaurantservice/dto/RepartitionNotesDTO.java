@@ -0,0 +1,18 @@
+package org.example.restaurantservice.dto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RepartitionNotesDTO {
+    private Long restaurantId;
+    private Double noteMoyenne;
+    private Long nombreAvis;
+    private Map<Integer, Long> repartition; // nombre d'avis par note, de 1 à 5
+}
@@ -0,0 +1,16 @@
+package org.example.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCapaciteRequest {
+    private Long reservationId; // identifiant côté reservation-service
+    private LocalDateTime dateTime;
+    private Integer guests;
+}
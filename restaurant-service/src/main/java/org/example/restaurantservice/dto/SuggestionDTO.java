@@ -0,0 +1,19 @@
+package org.example.restaurantservice.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionDTO {
+    private String libelle;
+    private String type; // "restaurant" ou "cuisine"
+    private Long restaurantId;
+    private Double noteMoyenne;
+    private Integer nombreAvis;
+}
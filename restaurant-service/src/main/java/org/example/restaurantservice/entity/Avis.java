@@ -13,7 +13,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "avis")
+@Table(name = "avis", indexes = @Index(name = "idx_avis_restaurant_date", columnList = "restaurant_id, created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,11 @@
+package org.example.restaurantservice.enums;
+
+public enum AvailabilityStatus {
+    AVAILABLE,
+    FULL,
+    CLOSED,
+    INSUFFICIENT_CAPACITY,
+    PAST,
+    INVALID_REQUEST,
+    UNKNOWN_RESTAURANT
+}
@@ -0,0 +1,105 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version monotone du catalogue, avancée à chaque écriture de restaurant (fiche ou note),
+ * une fois tous les index à jour : une réponse lue dans les index n'est jamais plus ancienne
+ * que la version lue avant elle. Les versions suivent l'horloge et updatedAt en millisecondes,
+ * avec au moins +1 par écriture ; au démarrage, la version repart au-dessus de toutes
+ * celles déjà distribuées.
+ * Les suppressions sont gardées (identifiant et version) pour le flux de changements ;
+ * elles ne survivent pas à un redémarrage, d'où un instantané complet pour une version
+ * antérieure au chargement.
+ */
+@Component
+public class CatalogueVersion {
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> parRestaurant = new ConcurrentHashMap<>();
+    private final Map<Long, Long> suppressions = new ConcurrentHashMap<>();
+    private long chargement;
+
+    // Écritures et lecture des changements sérialisées : une version distribuée est toujours
+    // visible dans parRestaurant ou suppressions
+    public synchronized void initialiser(Collection<Restaurant> restaurants) {
+        long plusRecente = restaurants.stream().mapToLong(CatalogueVersion::horodatage).max().orElse(0);
+        long courante = avancer(plusRecente);
+        parRestaurant.clear();
+        suppressions.clear();
+        restaurants.forEach(restaurant -> parRestaurant.put(restaurant.getId(), courante));
+        chargement = courante;
+    }
+
+    public synchronized void mettreAJour(Restaurant restaurant) {
+        parRestaurant.put(restaurant.getId(), avancer(horodatage(restaurant)));
+        suppressions.remove(restaurant.getId());
+    }
+
+    public synchronized void supprimer(Long restaurantId) {
+        parRestaurant.remove(restaurantId);
+        suppressions.put(restaurantId, avancer(0));
+    }
+
+    // Restaurants écrits et supprimés après la version depuis ; tout le catalogue si elle
+    // précède le chargement des index ou vient d'une autre instance
+    public synchronized Changements changementsDepuis(long depuis) {
+        long courante = version.get();
+        boolean complet = depuis < chargement || depuis > courante;
+        List<Long> modifies = new ArrayList<>();
+        parRestaurant.forEach((id, v) -> {
+            if (complet || v > depuis) {
+                modifies.add(id);
+            }
+        });
+        List<Long> supprimes = new ArrayList<>();
+        if (!complet) {
+            suppressions.forEach((id, v) -> {
+                if (v > depuis) {
+                    supprimes.add(id);
+                }
+            });
+        }
+        return new Changements(courante, complet, modifies.stream().mapToLong(Long::longValue).toArray(), supprimes);
+    }
+
+    public long courante() {
+        return version.get();
+    }
+
+    // Version de la dernière écriture du restaurant, absente s'il n'est pas au catalogue
+    public OptionalLong duRestaurant(Long restaurantId) {
+        Long valeur = parRestaurant.get(restaurantId);
+        return valeur != null ? OptionalLong.of(valeur) : OptionalLong.empty();
+    }
+
+    private long avancer(long horodatage) {
+        long cible = Math.max(horodatage, System.currentTimeMillis());
+        return version.accumulateAndGet(cible, (courante, t) -> Math.max(courante + 1, t));
+    }
+
+    private static long horodatage(Restaurant restaurant) {
+        LocalDateTime updatedAt = restaurant.getUpdatedAt();
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    // Version courante à reprendre au prochain appel ; complet : le catalogue entier est dans modifies
+    @lombok.Value
+    public static class Changements {
+        long version;
+        boolean complet;
+        long[] modifies;
+        List<Long> supprimes;
+    }
+}
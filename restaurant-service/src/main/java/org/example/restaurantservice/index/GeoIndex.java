@@ -0,0 +1,269 @@
+package org.example.restaurantservice.index;
+
+import lombok.Value;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Grille géographique (cellules de 0.01° de côté) sur les coordonnées des restaurants.
+ * Répond aux recherches par rayon et aux k plus proches voisins sans parcourir toute la table.
+ */
+@Component
+public class GeoIndex implements RestaurantIndex {
+
+    private static final double RAYON_TERRE_KM = 6371;
+    private static final double KM_PAR_DEGRE = Math.PI * RAYON_TERRE_KM / 180;
+    private static final double TAILLE_CELLULE = 0.01; // ~1.1 km en latitude
+    private static final int CELLULES_LATITUDE = (int) Math.round(180 / TAILLE_CELLULE);
+    private static final int CELLULES_LONGITUDE = (int) Math.round(360 / TAILLE_CELLULE);
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final Map<Long, List<Point>> cellules = new HashMap<>();
+
+    @Override
+    public void reconstruire(Collection<Restaurant> restaurants) {
+        verrou.writeLock().lock();
+        try {
+            points.clear();
+            cellules.clear();
+            restaurants.forEach(this::ajouter);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        verrou.writeLock().lock();
+        try {
+            retirer(restaurant.getId());
+            ajouter(restaurant);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        verrou.writeLock().lock();
+        try {
+            retirer(restaurantId);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Tous les restaurants à moins de rayonKm, triés par distance croissante
+    public List<Voisin> rechercherDansRayon(double latitude, double longitude, double rayonKm) {
+        verrou.readLock().lock();
+        try {
+            List<Voisin> resultats = new ArrayList<>();
+            Consumer<Point> collecteur = point -> {
+                double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance <= rayonKm) {
+                    resultats.add(new Voisin(point.id, distance));
+                }
+            };
+
+            double deltaLatitude = rayonKm / KM_PAR_DEGRE;
+            int latMin = Math.max(0, indexLatitude(latitude - deltaLatitude));
+            int latMax = Math.min(CELLULES_LATITUDE - 1, indexLatitude(latitude + deltaLatitude));
+            double latitudeExtreme = Math.max(Math.abs(latitude - deltaLatitude), Math.abs(latitude + deltaLatitude));
+            double cosinus = Math.cos(Math.toRadians(Math.min(90, latitudeExtreme)));
+
+            int lonMin = 0;
+            int largeur = CELLULES_LONGITUDE;
+            if (cosinus > 1e-9) {
+                double deltaLongitude = rayonKm / (KM_PAR_DEGRE * cosinus);
+                lonMin = indexLongitude(longitude - deltaLongitude);
+                largeur = Math.min(CELLULES_LONGITUDE, indexLongitude(longitude + deltaLongitude) - lonMin + 1);
+            }
+
+            // Rayon très large : un parcours direct coûte moins que l'énumération des cellules
+            if ((long) (latMax - latMin + 1) * largeur > points.size()) {
+                points.values().forEach(collecteur);
+            } else {
+                for (int lat = latMin; lat <= latMax; lat++) {
+                    for (int lon = lonMin; lon < lonMin + largeur; lon++) {
+                        visiterCellule(lat, lon, collecteur);
+                    }
+                }
+            }
+
+            resultats.sort(Comparator.comparingDouble(Voisin::getDistance));
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Les k restaurants les plus proches dans la limite de rayonMaxKm, par anneaux de cellules concentriques
+    public List<Voisin> rechercherPlusProches(double latitude, double longitude, int k, double rayonMaxKm) {
+        if (k <= 0) {
+            return List.of();
+        }
+        verrou.readLock().lock();
+        try {
+            PriorityQueue<Voisin> meilleurs = new PriorityQueue<>(
+                    Comparator.comparingDouble(Voisin::getDistance).reversed());
+            int[] visites = {0};
+            Consumer<Point> collecteur = point -> {
+                visites[0]++;
+                double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance > rayonMaxKm) {
+                    return;
+                }
+                if (meilleurs.size() < k) {
+                    meilleurs.add(new Voisin(point.id, distance));
+                } else if (distance < meilleurs.peek().getDistance()) {
+                    meilleurs.poll();
+                    meilleurs.add(new Voisin(point.id, distance));
+                }
+            };
+
+            int centreLat = indexLatitude(latitude);
+            int centreLon = indexLongitude(longitude);
+            for (int anneau = 0; ; anneau++) {
+                // L'anneau ferait le tour du globe : on termine par un parcours complet
+                if (2 * anneau + 1 >= CELLULES_LONGITUDE) {
+                    meilleurs.clear();
+                    points.values().forEach(collecteur);
+                    break;
+                }
+                visiterAnneau(centreLat, centreLon, anneau, collecteur);
+
+                if (visites[0] >= points.size()) {
+                    break;
+                }
+                double borne = borneInferieure(latitude, anneau);
+                if (borne > rayonMaxKm) {
+                    break;
+                }
+                if (meilleurs.size() == k && borne >= meilleurs.peek().getDistance()) {
+                    break;
+                }
+            }
+
+            List<Voisin> resultats = new ArrayList<>(meilleurs);
+            resultats.sort(Comparator.comparingDouble(Voisin::getDistance));
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+        return 2 * RAYON_TERRE_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    // Distance minimale d'un point situé hors des anneaux 0..anneau déjà visités
+    private static double borneInferieure(double latitude, int anneau) {
+        double ecart = Math.toRadians(anneau * TAILLE_CELLULE);
+        double latitudeExtreme = Math.min(90, Math.abs(latitude) + (anneau + 1) * TAILLE_CELLULE);
+        double cosinus = Math.cos(Math.toRadians(latitudeExtreme));
+        return 2 * RAYON_TERRE_KM * Math.asin(Math.min(1, cosinus * Math.sin(ecart / 2)));
+    }
+
+    private void visiterAnneau(int centreLat, int centreLon, int anneau, Consumer<Point> collecteur) {
+        if (anneau == 0) {
+            visiterCellule(centreLat, centreLon, collecteur);
+            return;
+        }
+        for (int d = -anneau; d <= anneau; d++) {
+            visiterCellule(centreLat - anneau, centreLon + d, collecteur);
+            visiterCellule(centreLat + anneau, centreLon + d, collecteur);
+        }
+        for (int d = -anneau + 1; d <= anneau - 1; d++) {
+            visiterCellule(centreLat + d, centreLon - anneau, collecteur);
+            visiterCellule(centreLat + d, centreLon + anneau, collecteur);
+        }
+    }
+
+    private void visiterCellule(int lat, int lon, Consumer<Point> collecteur) {
+        if (lat < 0 || lat >= CELLULES_LATITUDE) {
+            return;
+        }
+        List<Point> contenu = cellules.get(cle(lat, lon));
+        if (contenu != null) {
+            contenu.forEach(collecteur);
+        }
+    }
+
+    private void ajouter(Restaurant restaurant) {
+        if (restaurant.getId() == null || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+            return;
+        }
+        Point point = new Point(restaurant.getId(),
+                restaurant.getLatitude().doubleValue(),
+                restaurant.getLongitude().doubleValue());
+        points.put(point.id, point);
+        cellules.computeIfAbsent(cle(point), c -> new ArrayList<>()).add(point);
+    }
+
+    private void retirer(Long restaurantId) {
+        Point ancien = points.remove(restaurantId);
+        if (ancien == null) {
+            return;
+        }
+        long cle = cle(ancien);
+        List<Point> contenu = cellules.get(cle);
+        contenu.remove(ancien);
+        if (contenu.isEmpty()) {
+            cellules.remove(cle);
+        }
+    }
+
+    private static long cle(Point point) {
+        return cle(indexLatitude(point.latitude), indexLongitude(point.longitude));
+    }
+
+    private static long cle(int lat, int lon) {
+        return (long) lat * CELLULES_LONGITUDE + Math.floorMod(lon, CELLULES_LONGITUDE);
+    }
+
+    private static int indexLatitude(double latitude) {
+        int index = (int) Math.floor((latitude + 90) / TAILLE_CELLULE);
+        return Math.max(0, Math.min(CELLULES_LATITUDE - 1, index));
+    }
+
+    private static int indexLongitude(double longitude) {
+        return (int) Math.floor((longitude + 180) / TAILLE_CELLULE);
+    }
+
+    @Value
+    public static class Voisin {
+        Long id;
+        double distance;
+    }
+
+    private static class Point {
+        final long id;
+        final double latitude;
+        final double longitude;
+
+        Point(long id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
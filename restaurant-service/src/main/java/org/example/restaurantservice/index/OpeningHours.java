@@ -0,0 +1,131 @@
+package org.example.restaurantservice.index;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Horaires d'ouverture compilés en un bitmap d'une semaine, une case par minute.
+ * Une fermeture antérieure à l'ouverture déborde sur le jour suivant (dimanche → lundi).
+ * Un créneau couvre les minutes [ouverture, fermeture).
+ */
+@Slf4j
+public final class OpeningHours {
+
+    public static final int MINUTES_PAR_JOUR = 24 * 60;
+    public static final int MINUTES_PAR_SEMAINE = 7 * MINUTES_PAR_JOUR;
+    public static final OpeningHours FERME = new OpeningHours(new BitSet(MINUTES_PAR_SEMAINE));
+
+    private static final DateTimeFormatter FORMAT_HEURE = DateTimeFormatter.ofPattern("HH:mm");
+    // Les horaires réels se répètent beaucoup : quelques centaines de paires suffisent
+    private static final int COMPILES_MAX = 4096;
+    private static final Map<Integer, OpeningHours> COMPILES = new ConcurrentHashMap<>();
+
+    private final BitSet minutes;
+
+    private OpeningHours(BitSet minutes) {
+        this.minutes = minutes;
+    }
+
+    // Horaires identiques tous les jours ; seules les paires valides sont mises en cache, par minutes
+    public static OpeningHours quotidien(String ouverture, String fermeture) {
+        if (ouverture == null || fermeture == null) {
+            return FERME;
+        }
+        LocalTime debut;
+        LocalTime fin;
+        try {
+            debut = LocalTime.parse(ouverture, FORMAT_HEURE);
+            fin = LocalTime.parse(fermeture, FORMAT_HEURE);
+        } catch (DateTimeParseException e) {
+            log.warn("Horaires invalides '{}' - '{}', restaurant considéré fermé", ouverture, fermeture);
+            return FERME;
+        }
+        int cle = (debut.getHour() * 60 + debut.getMinute()) * MINUTES_PAR_JOUR + fin.getHour() * 60 + fin.getMinute();
+        OpeningHours compile = COMPILES.get(cle);
+        if (compile != null) {
+            return compile;
+        }
+        Builder builder = builder();
+        for (DayOfWeek jour : DayOfWeek.values()) {
+            builder.ajouter(jour, debut, fin);
+        }
+        compile = builder.build();
+        // Cache plein : on compile sans mémoriser plutôt que de laisser grossir la map
+        if (COMPILES.size() < COMPILES_MAX) {
+            OpeningHours existant = COMPILES.putIfAbsent(cle, compile);
+            return existant != null ? existant : compile;
+        }
+        return compile;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static int minuteDeSemaine(LocalDateTime instant) {
+        return (instant.getDayOfWeek().getValue() - 1) * MINUTES_PAR_JOUR
+                + instant.getHour() * 60 + instant.getMinute();
+    }
+
+    public boolean estOuvert(LocalDateTime instant) {
+        return minutes.get(minuteDeSemaine(instant));
+    }
+
+    public boolean estOuvert(int minuteDeSemaine) {
+        return minutes.get(minuteDeSemaine);
+    }
+
+    public boolean estToujoursFerme() {
+        return minutes.isEmpty();
+    }
+
+    // Minutes où l'état ouvert/fermé change par rapport à la minute précédente
+    int[] transitions() {
+        BitSet decale = new BitSet(MINUTES_PAR_SEMAINE);
+        for (int m = minutes.nextSetBit(0); m >= 0; m = minutes.nextSetBit(m + 1)) {
+            decale.set((m + 1) % MINUTES_PAR_SEMAINE);
+        }
+        decale.xor(minutes);
+        return decale.stream().toArray();
+    }
+
+    @Override
+    public boolean equals(Object autre) {
+        return autre instanceof OpeningHours && minutes.equals(((OpeningHours) autre).minutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return minutes.hashCode();
+    }
+
+    public static class Builder {
+        private final BitSet minutes = new BitSet(MINUTES_PAR_SEMAINE);
+
+        public Builder ajouter(DayOfWeek jour, LocalTime ouverture, LocalTime fermeture) {
+            int debut = (jour.getValue() - 1) * MINUTES_PAR_JOUR + ouverture.getHour() * 60 + ouverture.getMinute();
+            int duree = fermeture.getHour() * 60 + fermeture.getMinute()
+                    - (ouverture.getHour() * 60 + ouverture.getMinute());
+            // Gérer les cas où le restaurant ferme après minuit
+            if (duree < 0) {
+                duree += MINUTES_PAR_JOUR;
+            }
+            for (int i = 0; i < duree; i++) {
+                minutes.set((debut + i) % MINUTES_PAR_SEMAINE);
+            }
+            return this;
+        }
+
+        public OpeningHours build() {
+            return minutes.isEmpty() ? FERME : new OpeningHours((BitSet) minutes.clone());
+        }
+    }
+}
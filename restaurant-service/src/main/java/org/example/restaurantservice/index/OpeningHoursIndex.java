@@ -0,0 +1,139 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Restaurants ouverts à un instant donné, sans parcourir le catalogue.
+ * La semaine est découpée aux minutes où au moins un horaire change d'état ; chaque segment
+ * porte le bitmap des restaurants ouverts pendant toute sa durée. Répondre revient à une
+ * recherche dichotomique du segment. Quand des horaires ont changé, les segments sont recalculés
+ * hors des requêtes, au plus une fois par intervalle ; les requêtes servent les précédents en attendant.
+ */
+@Component
+public class OpeningHoursIndex implements RestaurantIndex {
+
+    private final Map<Long, OpeningHours> horaires = new ConcurrentHashMap<>();
+    private final AtomicBoolean modifie = new AtomicBoolean(false);
+    private volatile Segments segments = Segments.VIDES;
+
+    // Chargement complet : les segments sont construits tout de suite, sur le fil du chargement
+    @Override
+    public void reconstruire(Collection<Restaurant> restaurants) {
+        horaires.clear();
+        restaurants.forEach(restaurant -> horaires.put(restaurant.getId(), compiler(restaurant)));
+        modifie.set(true);
+        reconstruireSiModifie();
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        OpeningHours nouveaux = compiler(restaurant);
+        // Une nouvelle note ne touche pas aux horaires : inutile de recalculer les segments
+        if (!nouveaux.equals(horaires.put(restaurant.getId(), nouveaux))) {
+            modifie.set(true);
+        }
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        if (horaires.remove(restaurantId) != null) {
+            modifie.set(true);
+        }
+    }
+
+    public static OpeningHours compiler(Restaurant restaurant) {
+        return OpeningHours.quotidien(restaurant.getHeureOuverture(), restaurant.getHeureFermeture());
+    }
+
+    public boolean estOuvert(Long restaurantId, LocalDateTime instant) {
+        OpeningHours horaire = horaires.get(restaurantId);
+        return horaire != null && horaire.estOuvert(instant);
+    }
+
+    // Identifiants triés des restaurants ouverts à l'instant donné
+    public long[] idsOuverts(LocalDateTime instant) {
+        Segments courants = segments;
+        BitSet ouverts = courants.ouvertsA(OpeningHours.minuteDeSemaine(instant));
+        long[] resultat = new long[ouverts.cardinality()];
+        int n = 0;
+        for (int i = ouverts.nextSetBit(0); i >= 0; i = ouverts.nextSetBit(i + 1)) {
+            resultat[n++] = courants.ids[i];
+        }
+        return resultat;
+    }
+
+    public int compterOuverts(LocalDateTime instant) {
+        return segments.ouvertsA(OpeningHours.minuteDeSemaine(instant)).cardinality();
+    }
+
+    // Une rafale de modifications d'horaires ne coûte qu'une reconstruction par intervalle
+    @Scheduled(fixedDelayString = "${horaires.reconstruction-interval-ms:1000}")
+    public synchronized void reconstruireSiModifie() {
+        if (modifie.getAndSet(false)) {
+            segments = construire();
+        }
+    }
+
+    private Segments construire() {
+        long[] ids = horaires.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        // Les horaires distincts sont peu nombreux : on regroupe les restaurants par horaire
+        Map<OpeningHours, BitSet> parHoraire = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            OpeningHours horaire = horaires.get(ids[i]);
+            if (horaire != null && !horaire.estToujoursFerme()) {
+                parHoraire.computeIfAbsent(horaire, h -> new BitSet(ids.length)).set(i);
+            }
+        }
+
+        TreeSet<Integer> bornes = new TreeSet<>(List.of(0));
+        parHoraire.keySet().forEach(horaire -> Arrays.stream(horaire.transitions()).forEach(bornes::add));
+        int[] debuts = bornes.stream().mapToInt(Integer::intValue).toArray();
+
+        BitSet[] ouverts = new BitSet[debuts.length];
+        for (int s = 0; s < debuts.length; s++) {
+            BitSet segment = new BitSet(ids.length);
+            for (Map.Entry<OpeningHours, BitSet> groupe : parHoraire.entrySet()) {
+                if (groupe.getKey().estOuvert(debuts[s])) {
+                    segment.or(groupe.getValue());
+                }
+            }
+            ouverts[s] = segment;
+        }
+        return new Segments(ids, debuts, ouverts);
+    }
+
+    private static class Segments {
+        static final Segments VIDES = new Segments(new long[0], new int[]{0}, new BitSet[]{new BitSet()});
+
+        final long[] ids;
+        final int[] debuts;
+        final BitSet[] ouverts;
+
+        Segments(long[] ids, int[] debuts, BitSet[] ouverts) {
+            this.ids = ids;
+            this.debuts = debuts;
+            this.ouverts = ouverts;
+        }
+
+        // Copie défensive : les appelants peuvent combiner le bitmap avec leurs filtres
+        BitSet ouvertsA(int minuteDeSemaine) {
+            int position = Arrays.binarySearch(debuts, minuteDeSemaine);
+            int segment = position >= 0 ? position : -position - 2;
+            return (BitSet) ouverts[segment].clone();
+        }
+    }
+}
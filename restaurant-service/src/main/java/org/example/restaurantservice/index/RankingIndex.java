@@ -0,0 +1,117 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Classements maintenus en continu (listes à enjambements triées par nombre d'avis et par note).
+ * Lire les k premiers coûte O(k) au lieu d'un tri complet du catalogue ; les lectures
+ * ne prennent aucun verrou.
+ */
+@Component
+public class RankingIndex implements RestaurantIndex {
+
+    private static final Comparator<Entree> PAR_POPULARITE = Comparator
+            .comparingInt((Entree e) -> e.nombreAvis).reversed()
+            .thenComparingLong(e -> e.id);
+
+    private static final Comparator<Entree> PAR_NOTE = Comparator
+            .comparingDouble((Entree e) -> e.note).reversed()
+            .thenComparingLong(e -> e.id);
+
+    private final NavigableSet<Entree> parPopularite = new ConcurrentSkipListSet<>(PAR_POPULARITE);
+    private final NavigableSet<Entree> parNote = new ConcurrentSkipListSet<>(PAR_NOTE);
+    private final Map<Long, Entree> entrees = new HashMap<>();
+
+    @Override
+    public synchronized void reconstruire(Collection<Restaurant> restaurants) {
+        entrees.clear();
+        parPopularite.clear();
+        parNote.clear();
+        restaurants.forEach(this::ecrire);
+    }
+
+    @Override
+    public synchronized void mettreAJour(Restaurant restaurant) {
+        retirer(restaurant.getId());
+        ecrire(restaurant);
+    }
+
+    @Override
+    public synchronized void supprimer(Long restaurantId) {
+        retirer(restaurantId);
+    }
+
+    public long[] plusPopulaires(int limite) {
+        return premiers(parPopularite, limite, id -> true);
+    }
+
+    public long[] mieuxNotes(int limite) {
+        return premiers(parNote, limite, id -> true);
+    }
+
+    // Parcours par note décroissante, interrompu dès que la note passe sous noteMin
+    public long[] mieuxNotes(int limite, double noteMin, LongPredicate filtre) {
+        long[] resultat = new long[Math.min(limite, parNote.size())];
+        int n = 0;
+        for (Entree entree : parNote) {
+            if (n == resultat.length || entree.note < noteMin) {
+                break;
+            }
+            if (filtre.test(entree.id)) {
+                resultat[n++] = entree.id;
+            }
+        }
+        return Arrays.copyOf(resultat, n);
+    }
+
+    private static long[] premiers(NavigableSet<Entree> classement, int limite, LongPredicate filtre) {
+        return classement.stream()
+                .mapToLong(entree -> entree.id)
+                .filter(filtre)
+                .limit(Math.max(0, limite))
+                .toArray();
+    }
+
+    private void ecrire(Restaurant restaurant) {
+        Entree entree = new Entree(
+                restaurant.getId(),
+                restaurant.getNombreAvis() != null ? restaurant.getNombreAvis() : 0,
+                restaurant.getNoteMoyenne());
+        entrees.put(entree.id, entree);
+        parPopularite.add(entree);
+        // Comme findTopRatedRestaurants : les restaurants sans note ne sont pas classés
+        if (restaurant.getNoteMoyenne() != null) {
+            parNote.add(entree);
+        }
+    }
+
+    private void retirer(Long restaurantId) {
+        Entree ancienne = entrees.remove(restaurantId);
+        if (ancienne != null) {
+            parPopularite.remove(ancienne);
+            parNote.remove(ancienne);
+        }
+    }
+
+    private static class Entree {
+        final long id;
+        final int nombreAvis;
+        final double note;
+
+        Entree(long id, int nombreAvis, Double note) {
+            this.id = id;
+            this.nombreAvis = nombreAvis;
+            this.note = note != null ? note : Double.NaN;
+        }
+    }
+}
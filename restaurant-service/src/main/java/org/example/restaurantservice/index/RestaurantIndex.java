@@ -0,0 +1,18 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.entity.Restaurant;
+
+import java.util.Collection;
+
+/**
+ * Structure en mémoire dérivée de la table restaurants.
+ * Reconstruite au démarrage puis tenue à jour à chaque écriture d'un restaurant.
+ */
+public interface RestaurantIndex {
+
+    void reconstruire(Collection<Restaurant> restaurants);
+
+    void mettreAJour(Restaurant restaurant);
+
+    void supprimer(Long restaurantId);
+}
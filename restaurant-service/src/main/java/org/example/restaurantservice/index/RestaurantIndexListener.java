@@ -0,0 +1,59 @@
+package org.example.restaurantservice.index;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA qui propage les écritures de restaurants vers les index en mémoire.
+ * Les index ne sont modifiés qu'après le commit, pour ne jamais refléter une transaction annulée ;
+ * la version du catalogue n'avance qu'une fois tous les index à jour.
+ */
+@Component
+public class RestaurantIndexListener {
+
+    private final ObjectProvider<RestaurantIndex> indexes;
+    private final ObjectProvider<CatalogueVersion> catalogueVersion;
+
+    public RestaurantIndexListener(ObjectProvider<RestaurantIndex> indexes,
+                                   ObjectProvider<CatalogueVersion> catalogueVersion) {
+        this.indexes = indexes;
+        this.catalogueVersion = catalogueVersion;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void apresEcriture(Restaurant restaurant) {
+        apresCommit(() -> {
+            indexes.orderedStream().forEach(index -> index.mettreAJour(restaurant));
+            catalogueVersion.getObject().mettreAJour(restaurant);
+        });
+    }
+
+    @PostRemove
+    public void apresSuppression(Restaurant restaurant) {
+        Long id = restaurant.getId();
+        apresCommit(() -> {
+            indexes.orderedStream().forEach(index -> index.supprimer(id));
+            catalogueVersion.getObject().supprimer(id);
+        });
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
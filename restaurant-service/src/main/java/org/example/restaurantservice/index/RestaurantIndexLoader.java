@@ -0,0 +1,31 @@
+package org.example.restaurantservice.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RestaurantIndexLoader {
+
+    private final RestaurantRepository restaurantRepository;
+    private final ObjectProvider<RestaurantIndex> indexes;
+    private final CatalogueVersion catalogueVersion;
+
+    // Après les CommandLineRunner, pour inclure les données d'initialisation
+    @EventListener(ApplicationReadyEvent.class)
+    public void charger() {
+        List<Restaurant> restaurants = restaurantRepository.findAll();
+        indexes.orderedStream().forEach(index -> index.reconstruire(restaurants));
+        catalogueVersion.initialiser(restaurants);
+        log.info("Index en mémoire construits pour {} restaurants", restaurants.size());
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.restaurantservice.index;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.restaurantservice.dto.JsonFragments;
+import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fiches RestaurantDTO encodées une fois en JSON UTF-8, réencodées à chaque écriture du
+ * restaurant. Les listes sont servies en recopiant ces octets, sans sérialisation par requête.
+ * L'encodage passe par l'ObjectMapper de l'application : les octets sont ceux que Jackson
+ * aurait produits pour le DTO.
+ */
+@Component
+public class RestaurantJsonCache implements RestaurantIndex {
+
+    private static final String DISTANCE = "distance";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ecriture;
+    private final List<String> proprietes;
+    private final Map<Long, Encodage> encodages = new ConcurrentHashMap<>();
+
+    public RestaurantJsonCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.ecriture = objectMapper.writerFor(RestaurantDTO.class);
+        List<String> noms = new ArrayList<>();
+        analyser(encoderBrut(new RestaurantDTO()), noms);
+        if (noms.isEmpty() || !DISTANCE.equals(noms.get(noms.size() - 1)) || noms.size() > Integer.SIZE - 1) {
+            throw new IllegalStateException("RestaurantDTO doit se terminer par le champ distance");
+        }
+        this.proprietes = List.copyOf(noms);
+    }
+
+    @Override
+    public void reconstruire(Collection<Restaurant> restaurants) {
+        encodages.clear();
+        restaurants.forEach(this::mettreAJour);
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        encodages.put(restaurant.getId(), encoder(RestaurantSearchEngine.versFiche(restaurant)));
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        encodages.remove(restaurantId);
+    }
+
+    public Optional<JsonFragments.Fragment> fragment(Long restaurantId) {
+        Encodage encodage = encodages.get(restaurantId);
+        return encodage != null ? Optional.of(encodage.fragment(null)) : Optional.empty();
+    }
+
+    // Fiches des restaurants connus, dans l'ordre fourni ; distances alignées sur les identifiants
+    public List<JsonFragments.Fragment> fragments(long[] restaurantIds, double[] distances) {
+        List<JsonFragments.Fragment> fragments = new ArrayList<>(restaurantIds.length);
+        for (int i = 0; i < restaurantIds.length; i++) {
+            Encodage encodage = encodages.get(restaurantIds[i]);
+            if (encodage != null) {
+                fragments.add(encodage.fragment(distances != null ? distances[i] : null));
+            }
+        }
+        return fragments;
+    }
+
+    // Masque des champs nommés dans fields (séparés par des virgules), dans l'ordre du DTO
+    public int masque(String fields) {
+        int masque = 0;
+        for (String champ : fields.split(",")) {
+            String nom = champ.trim();
+            if (nom.isEmpty()) {
+                continue;
+            }
+            int position = proprietes.indexOf(nom);
+            if (position < 0) {
+                throw new IllegalArgumentException("Champ inconnu: " + nom);
+            }
+            masque |= 1 << position;
+        }
+        if (masque == 0) {
+            throw new IllegalArgumentException("Aucun champ demandé");
+        }
+        return masque;
+    }
+
+    public List<String> proprietes(int masque) {
+        if (masque == JsonFragments.TOUS_LES_CHAMPS) {
+            return proprietes;
+        }
+        List<String> retenues = new ArrayList<>();
+        for (int p = 0; p < proprietes.size(); p++) {
+            if ((masque & (1 << p)) != 0) {
+                retenues.add(proprietes.get(p));
+            }
+        }
+        return retenues;
+    }
+
+    // La distance est le dernier champ du DTO : on garde tout ce qui précède sa valeur
+    private Encodage encoder(RestaurantDTO fiche) {
+        byte[] json = encoderBrut(fiche);
+        int[] positions = analyser(json, null);
+        int finDistance = positions[positions.length - 1] + DISTANCE.length() + 3;
+        return new Encodage(Arrays.copyOf(json, finDistance), positions);
+    }
+
+    private byte[] encoderBrut(RestaurantDTO fiche) {
+        try {
+            return ecriture.writeValueAsBytes(fiche);
+        } catch (IOException e) {
+            throw new IllegalStateException("Encodage du restaurant " + fiche.getId() + " impossible", e);
+        }
+    }
+
+    // Position de la clé de chaque propriété de premier niveau
+    private int[] analyser(byte[] json, List<String> noms) {
+        List<Integer> positions = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            parser.nextToken();
+            for (JsonToken token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                positions.add((int) parser.currentTokenLocation().getByteOffset());
+                if (noms != null) {
+                    noms.add(parser.currentName());
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Fiche JSON illisible", e);
+        }
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Encodage {
+        final byte[] debut;
+        final int[] proprietes;
+
+        Encodage(byte[] debut, int[] proprietes) {
+            this.debut = debut;
+            this.proprietes = proprietes;
+        }
+
+        JsonFragments.Fragment fragment(Double distance) {
+            return new JsonFragments.Fragment(debut, proprietes, distance);
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package org.example.restaurantservice.index;
+
+import lombok.RequiredArgsConstructor;
+import org.example.restaurantservice.dto.RechercheRestaurantRequest;
+import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Moteur de recherche en mémoire : les colonnes filtrables et triables sont stockées
+ * dans des tableaux primitifs, indexés par un numéro d'emplacement par restaurant.
+ * Les recherches n'accèdent ni à la base ni aux entités Hibernate.
+ */
+@Component
+@RequiredArgsConstructor
+public class RestaurantSearchEngine implements RestaurantIndex {
+
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    private final TrigramIndex trigramIndex;
+    private final OpeningHoursIndex openingHoursIndex;
+    private final GeoIndex geoIndex;
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> emplacements = new HashMap<>();
+    private final BitSet actifs = new BitSet();
+    // Emplacements libérés par supprimer, repris en priorité : taille ne croît qu'avec le nombre de restaurants
+    private final BitSet libres = new BitSet();
+    private int taille;
+
+    private long[] ids = new long[0];
+    private double[] notes = new double[0];
+    private int[] nombresAvis = new int[0];
+    private double[] prix = new double[0];
+    private int[] capacites = new int[0];
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private RestaurantDTO[] fiches = new RestaurantDTO[0];
+
+    @Override
+    public void reconstruire(Collection<Restaurant> restaurants) {
+        verrou.writeLock().lock();
+        try {
+            emplacements.clear();
+            actifs.clear();
+            libres.clear();
+            taille = 0;
+            allouer(restaurants.size());
+            restaurants.forEach(this::ecrire);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        verrou.writeLock().lock();
+        try {
+            ecrire(restaurant);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        verrou.writeLock().lock();
+        try {
+            Integer emplacement = emplacements.remove(restaurantId);
+            if (emplacement != null) {
+                actifs.clear(emplacement);
+                libres.set(emplacement);
+                fiches[emplacement] = null;
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    public Optional<RestaurantDTO> trouver(Long restaurantId) {
+        verrou.readLock().lock();
+        try {
+            Integer emplacement = emplacements.get(restaurantId);
+            return emplacement == null ? Optional.empty() : Optional.of(copier(fiches[emplacement]));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public boolean contient(Long restaurantId) {
+        verrou.readLock().lock();
+        try {
+            return emplacements.containsKey(restaurantId);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Fiches des restaurants connus, dans l'ordre des identifiants fournis
+    public List<RestaurantDTO> trouverTous(long[] restaurantIds) {
+        verrou.readLock().lock();
+        try {
+            List<RestaurantDTO> dtos = new ArrayList<>(restaurantIds.length);
+            for (long id : restaurantIds) {
+                Integer emplacement = emplacements.get(id);
+                if (emplacement != null) {
+                    dtos.add(copier(fiches[emplacement]));
+                }
+            }
+            return dtos;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public List<RestaurantDTO> rechercher(RechercheRestaurantRequest request) {
+        verrou.readLock().lock();
+        try {
+            Selection selection = selectionner(request, null, Integer.MAX_VALUE);
+            long[] resultats = selection.getIds();
+            List<RestaurantDTO> dtos = new ArrayList<>(resultats.length);
+            for (int k = 0; k < resultats.length; k++) {
+                RestaurantDTO dto = copier(fiches[emplacements.get(resultats[k])]);
+                if (selection.getDistances() != null) {
+                    dto.setDistance(selection.getDistances()[k]);
+                }
+                dtos.add(dto);
+            }
+            return dtos;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Au plus limite identifiants, pris strictement après la position donnée dans l'ordre de tri
+    public Selection selectionner(RechercheRestaurantRequest request, Position apres, int limite) {
+        verrou.readLock().lock();
+        try {
+            double noteMin = request.getNoteMin() != null ? request.getNoteMin() : Double.NaN;
+            double prixMin = request.getPrixMin() != null ? request.getPrixMin().doubleValue() : Double.NaN;
+            double prixMax = request.getPrixMax() != null ? request.getPrixMax().doubleValue() : Double.NaN;
+            boolean avecCoordonnees = request.getLatitude() != null && request.getLongitude() != null;
+            double latitude = avecCoordonnees ? request.getLatitude().doubleValue() : 0;
+            double longitude = avecCoordonnees ? request.getLongitude().doubleValue() : 0;
+            double rayon = request.getRayon() != null ? request.getRayon() : 0;
+
+            // Filtres textuels résolus par l'index de trigrammes
+            BitSet candidats = (BitSet) actifs.clone();
+            if (request.getNom() != null && !request.getNom().isEmpty()) {
+                candidats.and(emplacementsDe(trigramIndex.rechercher(TrigramIndex.Champ.NOM, request.getNom())));
+            }
+            if (request.getTypeCuisine() != null && !request.getTypeCuisine().isEmpty()) {
+                candidats.and(emplacementsDe(
+                        trigramIndex.rechercher(TrigramIndex.Champ.TYPE_CUISINE, request.getTypeCuisine())));
+            }
+            if (request.getAdresse() != null && !request.getAdresse().isEmpty()) {
+                candidats.and(emplacementsDe(trigramIndex.rechercher(TrigramIndex.Champ.ADRESSE, request.getAdresse())));
+            }
+            if (Boolean.TRUE.equals(request.getOuvertMaintenant())) {
+                candidats.and(emplacementsDe(openingHoursIndex.idsOuverts(LocalDateTime.now())));
+            }
+
+            double[] distances = avecCoordonnees ? new double[taille] : null;
+            // Avec un rayon, la grille de GeoIndex donne les candidats et leurs distances ;
+            // sans rayon, la distance n'est qu'une clé de tri, calculée sur les seuls candidats
+            boolean parGrille = avecCoordonnees && request.getRayon() != null;
+            if (parGrille) {
+                BitSet proches = new BitSet(taille);
+                for (GeoIndex.Voisin voisin : geoIndex.rechercherDansRayon(latitude, longitude, rayon)) {
+                    Integer emplacement = emplacements.get(voisin.getId());
+                    if (emplacement != null) {
+                        proches.set(emplacement);
+                        distances[emplacement] = voisin.getDistance();
+                    }
+                }
+                candidats.and(proches);
+            }
+
+            int[] resultats = new int[candidats.cardinality()];
+            CleTri cle = cle(request.getTri(), distances);
+            int n = 0;
+
+            for (int i = candidats.nextSetBit(0); i >= 0; i = candidats.nextSetBit(i + 1)) {
+                // Les comparaisons avec NaN (colonne nulle) sont fausses, comme en SQL
+                if (!Double.isNaN(noteMin) && !(notes[i] >= noteMin)) {
+                    continue;
+                }
+                if (!Double.isNaN(prixMin) && !(prix[i] >= prixMin)) {
+                    continue;
+                }
+                if (!Double.isNaN(prixMax) && !(prix[i] <= prixMax)) {
+                    continue;
+                }
+                if (request.getCapaciteMin() != null
+                        && (capacites[i] == ABSENT || capacites[i] < request.getCapaciteMin())) {
+                    continue;
+                }
+                if (request.getCapaciteMax() != null
+                        && (capacites[i] == ABSENT || capacites[i] > request.getCapaciteMax())) {
+                    continue;
+                }
+                if (avecCoordonnees && !parGrille) {
+                    double distance = GeoIndex.distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                    if (Double.isNaN(distance)) {
+                        continue;
+                    }
+                    distances[i] = distance;
+                }
+                if (apres != null && !estApres(cle, i, apres)) {
+                    continue;
+                }
+                resultats[n++] = i;
+            }
+
+            OrdreEmplacements ordre = ordre(cle);
+            boolean suite = n > limite;
+            if (suite) {
+                // Seule la page est triée : sélection par tas borné, en O(n log limite)
+                resultats = premiers(resultats, n, ordre, limite);
+                n = limite;
+            }
+            trier(resultats, n, ordre);
+
+            long[] selection = new long[n];
+            double[] distancesSelection = avecCoordonnees ? new double[n] : null;
+            for (int k = 0; k < n; k++) {
+                selection[k] = ids[resultats[k]];
+                if (avecCoordonnees) {
+                    distancesSelection[k] = distances[resultats[k]];
+                }
+            }
+            Position suivante = null;
+            if (suite && n > 0) {
+                int dernier = resultats[n - 1];
+                suivante = new Position(cle.valeur(dernier), ids[dernier]);
+            }
+            return new Selection(selection, distancesSelection, suivante);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // Chaque tri est ramené à une clé croissante (les tris décroissants sont négés),
+    // départagée par l'identifiant : une position (clé, id) suffit à reprendre la liste
+    private CleTri cle(String tri, double[] distances) {
+        if (tri == null) {
+            return i -> 0;
+        }
+        switch (tri.toLowerCase()) {
+            case "distance":
+                return distances != null ? i -> distances[i] : i -> 0;
+            case "note":
+                return i -> -notes[i];
+            case "popularite":
+                return i -> -nombresAvis[i];
+            case "prix_asc":
+                return i -> prix[i];
+            case "prix_desc":
+                return i -> -prix[i];
+            case "capacite":
+                return i -> capacites[i] == ABSENT ? Double.NaN : -capacites[i];
+            default:
+                return i -> 0;
+        }
+    }
+
+    private OrdreEmplacements ordre(CleTri cle) {
+        return (a, b) -> {
+            int resultat = croissant(cle.valeur(a), cle.valeur(b));
+            return resultat != 0 ? resultat : Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    private boolean estApres(CleTri cle, int emplacement, Position position) {
+        int resultat = croissant(cle.valeur(emplacement), position.getCle());
+        return resultat > 0 || (resultat == 0 && ids[emplacement] > position.getId());
+    }
+
+    // Les valeurs absentes (NaN) sont toujours placées en fin de liste
+    private static int croissant(double x, double y) {
+        boolean xAbsent = Double.isNaN(x);
+        boolean yAbsent = Double.isNaN(y);
+        if (xAbsent || yAbsent) {
+            return Boolean.compare(xAbsent, yAbsent);
+        }
+        return Double.compare(x, y);
+    }
+
+    // Les limite premiers emplacements selon l'ordre, dans un tas dont la racine est le plus grand
+    private static int[] premiers(int[] emplacements, int n, OrdreEmplacements ordre, int limite) {
+        int[] tas = new int[limite];
+        int t = 0;
+        for (int k = 0; k < n; k++) {
+            int emplacement = emplacements[k];
+            if (t < limite) {
+                tas[t] = emplacement;
+                for (int i = t++; i > 0 && ordre.comparer(tas[i], tas[(i - 1) / 2]) > 0; i = (i - 1) / 2) {
+                    echanger(tas, i, (i - 1) / 2);
+                }
+            } else if (limite > 0 && ordre.comparer(emplacement, tas[0]) < 0) {
+                tas[0] = emplacement;
+                int i = 0;
+                while (true) {
+                    int plusGrand = i;
+                    for (int fils = 2 * i + 1; fils <= 2 * i + 2 && fils < t; fils++) {
+                        if (ordre.comparer(tas[fils], tas[plusGrand]) > 0) {
+                            plusGrand = fils;
+                        }
+                    }
+                    if (plusGrand == i) {
+                        break;
+                    }
+                    echanger(tas, i, plusGrand);
+                    i = plusGrand;
+                }
+            }
+        }
+        return tas;
+    }
+
+    private static void echanger(int[] tableau, int i, int j) {
+        int valeur = tableau[i];
+        tableau[i] = tableau[j];
+        tableau[j] = valeur;
+    }
+
+    // Tri fusion sur les numéros d'emplacement, sans boxing
+    private static void trier(int[] emplacements, int n, OrdreEmplacements ordre) {
+        if (n < 2) {
+            return;
+        }
+        int[] tampon = new int[n];
+        for (int largeur = 1; largeur < n; largeur *= 2) {
+            for (int debut = 0; debut < n - largeur; debut += 2 * largeur) {
+                int milieu = debut + largeur;
+                int fin = Math.min(debut + 2 * largeur, n);
+                int i = debut;
+                int j = milieu;
+                int k = debut;
+                while (i < milieu && j < fin) {
+                    tampon[k++] = ordre.comparer(emplacements[i], emplacements[j]) <= 0
+                            ? emplacements[i++] : emplacements[j++];
+                }
+                while (i < milieu) {
+                    tampon[k++] = emplacements[i++];
+                }
+                while (j < fin) {
+                    tampon[k++] = emplacements[j++];
+                }
+                System.arraycopy(tampon, debut, emplacements, debut, fin - debut);
+            }
+        }
+    }
+
+    private void ecrire(Restaurant restaurant) {
+        Integer emplacement = emplacements.get(restaurant.getId());
+        if (emplacement == null) {
+            int libre = libres.nextSetBit(0);
+            if (libre >= 0) {
+                libres.clear(libre);
+                emplacement = libre;
+            } else {
+                emplacement = taille++;
+                allouer(taille);
+            }
+            emplacements.put(restaurant.getId(), emplacement);
+        }
+        int i = emplacement;
+        ids[i] = restaurant.getId();
+        notes[i] = restaurant.getNoteMoyenne() != null ? restaurant.getNoteMoyenne() : Double.NaN;
+        nombresAvis[i] = restaurant.getNombreAvis() != null ? restaurant.getNombreAvis() : 0;
+        prix[i] = restaurant.getPrixMoyen() != null ? restaurant.getPrixMoyen().doubleValue() : Double.NaN;
+        capacites[i] = restaurant.getCapaciteTotale() != null ? restaurant.getCapaciteTotale() : ABSENT;
+        latitudes[i] = restaurant.getLatitude() != null ? restaurant.getLatitude().doubleValue() : Double.NaN;
+        longitudes[i] = restaurant.getLongitude() != null ? restaurant.getLongitude().doubleValue() : Double.NaN;
+        fiches[i] = versFiche(restaurant);
+        actifs.set(i);
+    }
+
+    private void allouer(int capaciteRequise) {
+        if (capaciteRequise <= ids.length) {
+            return;
+        }
+        int nouvelleCapacite = Math.max(capaciteRequise, ids.length + (ids.length >> 1) + 16);
+        ids = Arrays.copyOf(ids, nouvelleCapacite);
+        notes = Arrays.copyOf(notes, nouvelleCapacite);
+        nombresAvis = Arrays.copyOf(nombresAvis, nouvelleCapacite);
+        prix = Arrays.copyOf(prix, nouvelleCapacite);
+        capacites = Arrays.copyOf(capacites, nouvelleCapacite);
+        latitudes = Arrays.copyOf(latitudes, nouvelleCapacite);
+        longitudes = Arrays.copyOf(longitudes, nouvelleCapacite);
+        fiches = Arrays.copyOf(fiches, nouvelleCapacite);
+    }
+
+    private BitSet emplacementsDe(long[] restaurantIds) {
+        BitSet resultat = new BitSet(taille);
+        for (long id : restaurantIds) {
+            Integer emplacement = emplacements.get(id);
+            if (emplacement != null) {
+                resultat.set(emplacement);
+            }
+        }
+        return resultat;
+    }
+
+    public static RestaurantDTO versFiche(Restaurant restaurant) {
+        return RestaurantDTO.builder()
+                .id(restaurant.getId())
+                .nom(restaurant.getNom())
+                .adresse(restaurant.getAdresse())
+                .latitude(restaurant.getLatitude())
+                .longitude(restaurant.getLongitude())
+                .typeCuisine(restaurant.getTypeCuisine())
+                .description(restaurant.getDescription())
+                .heureOuverture(restaurant.getHeureOuverture())
+                .heureFermeture(restaurant.getHeureFermeture())
+                .prixMoyen(restaurant.getPrixMoyen())
+                .noteMoyenne(restaurant.getNoteMoyenne())
+                .nombreAvis(restaurant.getNombreAvis())
+                .capaciteTotale(restaurant.getCapaciteTotale())
+                .build();
+    }
+
+    // Les fiches stockées ne sont jamais exposées : chaque réponse reçoit sa copie
+    private static RestaurantDTO copier(RestaurantDTO fiche) {
+        return RestaurantDTO.builder()
+                .id(fiche.getId())
+                .nom(fiche.getNom())
+                .adresse(fiche.getAdresse())
+                .latitude(fiche.getLatitude())
+                .longitude(fiche.getLongitude())
+                .typeCuisine(fiche.getTypeCuisine())
+                .description(fiche.getDescription())
+                .heureOuverture(fiche.getHeureOuverture())
+                .heureFermeture(fiche.getHeureFermeture())
+                .prixMoyen(fiche.getPrixMoyen())
+                .noteMoyenne(fiche.getNoteMoyenne())
+                .nombreAvis(fiche.getNombreAvis())
+                .capaciteTotale(fiche.getCapaciteTotale())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface OrdreEmplacements {
+        int comparer(int a, int b);
+    }
+
+    @FunctionalInterface
+    private interface CleTri {
+        double valeur(int emplacement);
+    }
+
+    // Clé de tri et identifiant du dernier résultat d'une page
+    @lombok.Value
+    public static class Position {
+        double cle;
+        long id;
+    }
+
+    // Identifiants dans l'ordre du tri ; distances alignées, absentes sans coordonnées
+    @lombok.Value
+    public static class Selection {
+        long[] ids;
+        double[] distances;
+        Position suivante;
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.restaurantservice.index;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Agrégats du catalogue (sommes, compteurs par cuisine, min/max avec retrait)
+ * tenus à jour à chaque écriture. Les lectures se contentent d'un instantané immuable.
+ */
+@Component
+public class RestaurantStatistics implements RestaurantIndex {
+
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final TreeMap<String, Integer> parCuisine = new TreeMap<>();
+    private final TreeMap<BigDecimal, Integer> prix = new TreeMap<>();
+    private final TreeMap<Integer, Integer> capacites = new TreeMap<>();
+    private double sommeNotes;
+    private long totalAvis;
+
+    private volatile Instantane instantane = new Instantane(
+            0, 0.0, 0, Map.of(), List.of(), BigDecimal.ZERO, BigDecimal.valueOf(1000), 0, 100);
+
+    @Override
+    public synchronized void reconstruire(Collection<Restaurant> restaurants) {
+        contributions.clear();
+        parCuisine.clear();
+        prix.clear();
+        capacites.clear();
+        sommeNotes = 0;
+        totalAvis = 0;
+        restaurants.forEach(restaurant -> ajouter(new Contribution(restaurant)));
+        publier();
+    }
+
+    @Override
+    public synchronized void mettreAJour(Restaurant restaurant) {
+        retirer(restaurant.getId());
+        ajouter(new Contribution(restaurant));
+        publier();
+    }
+
+    @Override
+    public synchronized void supprimer(Long restaurantId) {
+        retirer(restaurantId);
+        publier();
+    }
+
+    public Instantane instantane() {
+        return instantane;
+    }
+
+    private void ajouter(Contribution contribution) {
+        contributions.put(contribution.id, contribution);
+        sommeNotes += contribution.note;
+        totalAvis += contribution.nombreAvis;
+        if (contribution.typeCuisine != null) {
+            parCuisine.merge(contribution.typeCuisine, 1, Integer::sum);
+        }
+        if (contribution.prix != null) {
+            prix.merge(contribution.prix, 1, Integer::sum);
+        }
+        if (contribution.capacite != null) {
+            capacites.merge(contribution.capacite, 1, Integer::sum);
+        }
+    }
+
+    private void retirer(Long restaurantId) {
+        Contribution ancienne = contributions.remove(restaurantId);
+        if (ancienne == null) {
+            return;
+        }
+        sommeNotes -= ancienne.note;
+        totalAvis -= ancienne.nombreAvis;
+        if (ancienne.typeCuisine != null) {
+            decrementer(parCuisine, ancienne.typeCuisine);
+        }
+        if (ancienne.prix != null) {
+            decrementer(prix, ancienne.prix);
+        }
+        if (ancienne.capacite != null) {
+            decrementer(capacites, ancienne.capacite);
+        }
+    }
+
+    private static <K> void decrementer(Map<K, Integer> compteurs, K cle) {
+        compteurs.computeIfPresent(cle, (k, valeur) -> valeur > 1 ? valeur - 1 : null);
+    }
+
+    private void publier() {
+        int total = contributions.size();
+        double noteMoyenneGenerale = total == 0 ? 0.0 : Math.round(sommeNotes / total * 100.0) / 100.0;
+        instantane = new Instantane(
+                total,
+                noteMoyenneGenerale,
+                totalAvis,
+                Collections.unmodifiableMap(new LinkedHashMap<>(parCuisine)),
+                List.copyOf(parCuisine.keySet()),
+                prix.isEmpty() ? BigDecimal.ZERO : prix.firstKey(),
+                prix.isEmpty() ? BigDecimal.valueOf(1000) : prix.lastKey(),
+                capacites.isEmpty() ? 0 : capacites.firstKey(),
+                capacites.isEmpty() ? 100 : capacites.lastKey());
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Instantane {
+        private final long totalRestaurants;
+        private final double noteMoyenneGenerale;
+        private final long totalAvis;
+        private final Map<String, Integer> statsCuisines;
+        private final List<String> cuisines;
+        private final BigDecimal prixMin;
+        private final BigDecimal prixMax;
+        private final Integer capaciteMin;
+        private final Integer capaciteMax;
+    }
+
+    private static class Contribution {
+        final Long id;
+        final double note;
+        final int nombreAvis;
+        final String typeCuisine;
+        final BigDecimal prix;
+        final Integer capacite;
+
+        Contribution(Restaurant restaurant) {
+            this.id = restaurant.getId();
+            this.note = restaurant.getNoteMoyenne() != null ? restaurant.getNoteMoyenne() : 0;
+            this.nombreAvis = restaurant.getNombreAvis() != null ? restaurant.getNombreAvis() : 0;
+            this.typeCuisine = restaurant.getTypeCuisine();
+            this.prix = restaurant.getPrixMoyen();
+            this.capacite = restaurant.getCapaciteTotale();
+        }
+    }
+}
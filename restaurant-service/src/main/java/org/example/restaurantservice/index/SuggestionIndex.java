@@ -0,0 +1,241 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.dto.SuggestionDTO;
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Arbre préfixe compact pour l'autocomplétion sur les noms de restaurants et les types de cuisine.
+ * Chaque nœud garde ses meilleures suggestions précalculées : une requête ne coûte que la
+ * descente le long du préfixe. Après une modification, l'arbre est reconstruit hors des requêtes,
+ * au plus une fois par intervalle, qui servent l'arbre précédent en attendant.
+ */
+@Component
+public class SuggestionIndex implements RestaurantIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int PROFONDEUR_MAX = 24;
+
+    private static final Comparator<Suggestion> PAR_PERTINENCE = Comparator
+            .comparingDouble((Suggestion s) -> s.note).reversed()
+            .thenComparing(Comparator.comparingInt((Suggestion s) -> s.nombreAvis).reversed())
+            .thenComparing(s -> s.libelle);
+
+    private final Map<Long, Restaurant> restaurants = new ConcurrentHashMap<>();
+    private final AtomicBoolean modifie = new AtomicBoolean(false);
+    private volatile Noeud racine = new Noeud();
+
+    // Chargement complet : l'arbre est construit tout de suite, sur le fil du chargement
+    @Override
+    public void reconstruire(Collection<Restaurant> tous) {
+        restaurants.clear();
+        tous.forEach(restaurant -> restaurants.put(restaurant.getId(), copie(restaurant)));
+        modifie.set(true);
+        reconstruireSiModifie();
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        restaurants.put(restaurant.getId(), copie(restaurant));
+        modifie.set(true);
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        restaurants.remove(restaurantId);
+        modifie.set(true);
+    }
+
+    public List<SuggestionDTO> suggerer(String prefixe, int limite) {
+        String cle = TrigramIndex.normaliser(prefixe).trim();
+        if (cle.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Noeud noeud = racine;
+        for (int i = 0; i < cle.length() && i < PROFONDEUR_MAX && noeud != null; i++) {
+            noeud = noeud.enfant(cle.charAt(i));
+        }
+        if (noeud == null) {
+            return List.of();
+        }
+        List<SuggestionDTO> resultats = new ArrayList<>();
+        for (int i = 0; i < noeud.meilleures.length && resultats.size() < limite; i++) {
+            Suggestion suggestion = noeud.meilleures[i];
+            // Au-delà de la profondeur indexée, on vérifie le préfixe complet
+            if (cle.length() > PROFONDEUR_MAX && !suggestion.contientMotCommencantPar(cle)) {
+                continue;
+            }
+            resultats.add(suggestion.versDTO());
+        }
+        return resultats;
+    }
+
+    // Une rafale d'écritures (avis qui changent des notes) ne coûte qu'une reconstruction par intervalle
+    @Scheduled(fixedDelayString = "${suggestions.reconstruction-interval-ms:1000}")
+    public synchronized void reconstruireSiModifie() {
+        if (modifie.getAndSet(false)) {
+            racine = construire();
+        }
+    }
+
+    private Noeud construire() {
+        Map<String, Suggestion> suggestions = new LinkedHashMap<>();
+        Map<String, double[]> parCuisine = new TreeMap<>();
+        for (Restaurant restaurant : restaurants.values()) {
+            double note = restaurant.getNoteMoyenne() != null ? restaurant.getNoteMoyenne() : 0;
+            int nombreAvis = restaurant.getNombreAvis() != null ? restaurant.getNombreAvis() : 0;
+            if (restaurant.getNom() != null) {
+                suggestions.put("r" + restaurant.getId(), new Suggestion(
+                        restaurant.getNom(), "restaurant", restaurant.getId(), note, nombreAvis));
+            }
+            if (restaurant.getTypeCuisine() != null) {
+                // somme des notes, nombre de restaurants, total des avis
+                double[] cumul = parCuisine.computeIfAbsent(restaurant.getTypeCuisine(), c -> new double[3]);
+                cumul[0] += note;
+                cumul[1]++;
+                cumul[2] += nombreAvis;
+            }
+        }
+        parCuisine.forEach((cuisine, cumul) -> suggestions.put("c" + cuisine, new Suggestion(
+                cuisine, "cuisine", null,
+                Math.round(cumul[0] / cumul[1] * 100.0) / 100.0, (int) cumul[2])));
+
+        Noeud nouvelleRacine = new Noeud();
+        for (Suggestion suggestion : suggestions.values()) {
+            for (String mot : suggestion.debutsDeMots()) {
+                Noeud noeud = nouvelleRacine;
+                for (int i = 0; i < mot.length() && i < PROFONDEUR_MAX; i++) {
+                    noeud = noeud.enfantOuCree(mot.charAt(i));
+                }
+                noeud.ajouterTerminale(suggestion);
+            }
+        }
+        nouvelleRacine.calculerMeilleures();
+        return nouvelleRacine;
+    }
+
+    private static Restaurant copie(Restaurant restaurant) {
+        return Restaurant.builder()
+                .id(restaurant.getId())
+                .nom(restaurant.getNom())
+                .typeCuisine(restaurant.getTypeCuisine())
+                .noteMoyenne(restaurant.getNoteMoyenne())
+                .nombreAvis(restaurant.getNombreAvis())
+                .build();
+    }
+
+    private static class Suggestion {
+        final String libelle;
+        final String normalise;
+        final String type;
+        final Long restaurantId;
+        final double note;
+        final int nombreAvis;
+
+        Suggestion(String libelle, String type, Long restaurantId, double note, int nombreAvis) {
+            this.libelle = libelle;
+            this.normalise = TrigramIndex.normaliser(libelle);
+            this.type = type;
+            this.restaurantId = restaurantId;
+            this.note = note;
+            this.nombreAvis = nombreAvis;
+        }
+
+        // Le libellé complet et chaque suffixe commençant un mot (« rick's cafe », « cafe »)
+        List<String> debutsDeMots() {
+            List<String> debuts = new ArrayList<>();
+            for (int i = 0; i < normalise.length(); i++) {
+                boolean debutDeMot = i == 0 || !Character.isLetterOrDigit(normalise.charAt(i - 1));
+                if (debutDeMot && Character.isLetterOrDigit(normalise.charAt(i))) {
+                    debuts.add(normalise.substring(i));
+                }
+            }
+            return debuts;
+        }
+
+        boolean contientMotCommencantPar(String prefixe) {
+            return debutsDeMots().stream().anyMatch(mot -> mot.startsWith(prefixe));
+        }
+
+        SuggestionDTO versDTO() {
+            return SuggestionDTO.builder()
+                    .libelle(libelle)
+                    .type(type)
+                    .restaurantId(restaurantId)
+                    .noteMoyenne(note)
+                    .nombreAvis(nombreAvis)
+                    .build();
+        }
+    }
+
+    private static class Noeud {
+        private static final Suggestion[] AUCUNE = new Suggestion[0];
+
+        char[] cles = new char[0];
+        Noeud[] enfants = new Noeud[0];
+        List<Suggestion> terminales;
+        Suggestion[] meilleures = AUCUNE;
+
+        Noeud enfant(char c) {
+            int position = Arrays.binarySearch(cles, c);
+            return position >= 0 ? enfants[position] : null;
+        }
+
+        Noeud enfantOuCree(char c) {
+            int position = Arrays.binarySearch(cles, c);
+            if (position >= 0) {
+                return enfants[position];
+            }
+            int insertion = -position - 1;
+            char[] nouvellesCles = new char[cles.length + 1];
+            Noeud[] nouveauxEnfants = new Noeud[enfants.length + 1];
+            System.arraycopy(cles, 0, nouvellesCles, 0, insertion);
+            System.arraycopy(enfants, 0, nouveauxEnfants, 0, insertion);
+            nouvellesCles[insertion] = c;
+            nouveauxEnfants[insertion] = new Noeud();
+            System.arraycopy(cles, insertion, nouvellesCles, insertion + 1, cles.length - insertion);
+            System.arraycopy(enfants, insertion, nouveauxEnfants, insertion + 1, enfants.length - insertion);
+            cles = nouvellesCles;
+            enfants = nouveauxEnfants;
+            return nouveauxEnfants[insertion];
+        }
+
+        void ajouterTerminale(Suggestion suggestion) {
+            if (terminales == null) {
+                terminales = new ArrayList<>(1);
+            }
+            terminales.add(suggestion);
+        }
+
+        // Parcours postfixe : les meilleures d'un nœud sont fusionnées depuis ses enfants
+        void calculerMeilleures() {
+            Set<Suggestion> candidates = new HashSet<>();
+            if (terminales != null) {
+                candidates.addAll(terminales);
+                terminales = null;
+            }
+            for (Noeud enfant : enfants) {
+                enfant.calculerMeilleures();
+                candidates.addAll(Arrays.asList(enfant.meilleures));
+            }
+            meilleures = candidates.stream()
+                    .sorted(PAR_PERTINENCE)
+                    .limit(MAX_SUGGESTIONS)
+                    .toArray(Suggestion[]::new);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.restaurantservice.index;
+
+import org.example.restaurantservice.entity.Restaurant;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé de trigrammes sur nom, typeCuisine et adresse.
+ * Répond aux recherches « contient », insensibles à la casse et aux accents,
+ * par intersection des listes d'identifiants triées puis vérification du texte.
+ */
+@Component
+public class TrigramIndex implements RestaurantIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final long[] AUCUN = new long[0];
+
+    public enum Champ {
+        NOM(Restaurant::getNom),
+        TYPE_CUISINE(Restaurant::getTypeCuisine),
+        ADRESSE(Restaurant::getAdresse);
+
+        private final Function<Restaurant, String> valeur;
+
+        Champ(Function<Restaurant, String> valeur) {
+            this.valeur = valeur;
+        }
+    }
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Map<Champ, ChampIndexe> champs = new EnumMap<>(Champ.class);
+
+    public TrigramIndex() {
+        for (Champ champ : Champ.values()) {
+            champs.put(champ, new ChampIndexe());
+        }
+    }
+
+    @Override
+    public void reconstruire(Collection<Restaurant> restaurants) {
+        verrou.writeLock().lock();
+        try {
+            champs.forEach((champ, index) -> index.reconstruire(champ, restaurants));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void mettreAJour(Restaurant restaurant) {
+        verrou.writeLock().lock();
+        try {
+            champs.forEach((champ, index) -> {
+                index.retirer(restaurant.getId());
+                index.ajouter(restaurant.getId(), champ.valeur.apply(restaurant));
+            });
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void supprimer(Long restaurantId) {
+        verrou.writeLock().lock();
+        try {
+            champs.values().forEach(index -> index.retirer(restaurantId));
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // Identifiants triés des restaurants dont le champ contient le texte recherché
+    public long[] rechercher(Champ champ, String texte) {
+        verrou.readLock().lock();
+        try {
+            return champs.get(champ).rechercher(normaliser(texte));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    public static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        return ACCENTS.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrammes(String texte) {
+        Set<String> resultat = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= texte.length(); i++) {
+            resultat.add(texte.substring(i, i + 3));
+        }
+        return resultat;
+    }
+
+    private static class ChampIndexe {
+
+        private final Map<Long, String> textes = new HashMap<>();
+        private final Map<String, long[]> listes = new HashMap<>();
+
+        void reconstruire(Champ champ, Collection<Restaurant> restaurants) {
+            textes.clear();
+            listes.clear();
+            Map<String, List<Long>> temporaires = new HashMap<>();
+            for (Restaurant restaurant : restaurants) {
+                String texte = normaliser(champ.valeur.apply(restaurant));
+                textes.put(restaurant.getId(), texte);
+                for (String trigramme : trigrammes(texte)) {
+                    temporaires.computeIfAbsent(trigramme, t -> new ArrayList<>()).add(restaurant.getId());
+                }
+            }
+            temporaires.forEach((trigramme, ids) -> {
+                long[] liste = ids.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(liste);
+                listes.put(trigramme, liste);
+            });
+        }
+
+        void ajouter(Long id, String valeur) {
+            String texte = normaliser(valeur);
+            textes.put(id, texte);
+            for (String trigramme : trigrammes(texte)) {
+                long[] liste = listes.getOrDefault(trigramme, AUCUN);
+                int position = Arrays.binarySearch(liste, id);
+                if (position < 0) {
+                    int insertion = -position - 1;
+                    long[] nouvelle = new long[liste.length + 1];
+                    System.arraycopy(liste, 0, nouvelle, 0, insertion);
+                    nouvelle[insertion] = id;
+                    System.arraycopy(liste, insertion, nouvelle, insertion + 1, liste.length - insertion);
+                    listes.put(trigramme, nouvelle);
+                }
+            }
+        }
+
+        void retirer(Long id) {
+            String ancien = textes.remove(id);
+            if (ancien == null) {
+                return;
+            }
+            for (String trigramme : trigrammes(ancien)) {
+                long[] liste = listes.get(trigramme);
+                int position = liste == null ? -1 : Arrays.binarySearch(liste, id);
+                if (position < 0) {
+                    continue;
+                }
+                if (liste.length == 1) {
+                    listes.remove(trigramme);
+                } else {
+                    long[] nouvelle = new long[liste.length - 1];
+                    System.arraycopy(liste, 0, nouvelle, 0, position);
+                    System.arraycopy(liste, position + 1, nouvelle, position, liste.length - position - 1);
+                    listes.put(trigramme, nouvelle);
+                }
+            }
+        }
+
+        long[] rechercher(String requete) {
+            // Requête trop courte pour former un trigramme : parcours des textes
+            if (requete.length() < 3) {
+                return textes.entrySet().stream()
+                        .filter(entree -> entree.getValue().contains(requete))
+                        .mapToLong(Map.Entry::getKey)
+                        .sorted()
+                        .toArray();
+            }
+
+            List<long[]> candidates = new ArrayList<>();
+            for (String trigramme : trigrammes(requete)) {
+                long[] liste = listes.get(trigramme);
+                if (liste == null) {
+                    return AUCUN;
+                }
+                candidates.add(liste);
+            }
+            // Intersection en partant de la liste la plus courte
+            candidates.sort(Comparator.comparingInt(liste -> liste.length));
+            long[] resultat = candidates.get(0);
+            for (int i = 1; i < candidates.size() && resultat.length > 0; i++) {
+                resultat = intersection(resultat, candidates.get(i));
+            }
+
+            // Les trigrammes communs ne garantissent pas la sous-chaîne : vérification finale
+            return Arrays.stream(resultat)
+                    .filter(id -> textes.get(id).contains(requete))
+                    .toArray();
+        }
+
+        private static long[] intersection(long[] a, long[] b) {
+            long[] resultat = new long[Math.min(a.length, b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    resultat[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(resultat, n);
+        }
+    }
+}
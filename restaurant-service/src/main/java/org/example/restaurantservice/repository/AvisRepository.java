@@ -1,23 +1,39 @@
 package org.example.restaurantservice.repository;
+import org.example.restaurantservice.dto.AvisDTO;
 import org.example.restaurantservice.entity.Avis;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface AvisRepository extends JpaRepository<Avis, Long> {
 
-    List<Avis> findByRestaurantId(Long restaurantId);
-    List<Avis> findByRestaurantIdOrderByCreatedAtDesc(Long restaurantId);
+    // Pagination par clé (createdAt, id) décroissante ; projection directe, sans charger d'entité
+    @Query("SELECT new org.example.restaurantservice.dto.AvisDTO(a.id, a.commentaire, a.note, a.auteurNom, r.id, r.nom, a.createdAt) " +
+            "FROM Avis a JOIN a.restaurant r " +
+            "WHERE r.id = :restaurantId AND a.createdAt > :since " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AvisDTO> findPremierePage(@Param("restaurantId") Long restaurantId,
+                                   @Param("since") LocalDateTime since,
+                                   Pageable pageable);
 
-    @Query("SELECT AVG(a.note) FROM Avis a WHERE a.restaurant.id = :restaurantId")
-    Double findAverageNoteByRestaurantId(@Param("restaurantId") Long restaurantId);
+    @Query("SELECT new org.example.restaurantservice.dto.AvisDTO(a.id, a.commentaire, a.note, a.auteurNom, r.id, r.nom, a.createdAt) " +
+            "FROM Avis a JOIN a.restaurant r " +
+            "WHERE r.id = :restaurantId AND a.createdAt > :since " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AvisDTO> findPageSuivante(@Param("restaurantId") Long restaurantId,
+                                   @Param("since") LocalDateTime since,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
 
-    @Query("SELECT COUNT(a) FROM Avis a WHERE a.restaurant.id = :restaurantId")
-    Long countByRestaurantId(@Param("restaurantId") Long restaurantId);
-
-    List<Avis> findTop5ByRestaurantIdOrderByCreatedAtDesc(Long restaurantId);
+    // restaurantId, note, nombre d'avis
+    @Query("SELECT a.restaurant.id, a.note, COUNT(a) FROM Avis a GROUP BY a.restaurant.id, a.note")
+    List<Object[]> compterParRestaurantEtNote();
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package org.example.restaurantservice.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.example.restaurantservice.dto.DisponibiliteBatchRequest;
+import org.example.restaurantservice.dto.DisponibiliteDTO;
+import org.example.restaurantservice.dto.ReservationCapaciteRequest;
+import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.enums.AvailabilityStatus;
+import org.example.restaurantservice.index.OpeningHoursIndex;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Disponibilités calculées en mémoire : fiche du moteur de recherche pour la capacité,
+ * index des horaires pour l'ouverture et registre des créneaux pour les places déjà prises.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    private static final int PAS_PAR_DEFAUT = 30;
+
+    private final RestaurantSearchEngine searchEngine;
+    private final OpeningHoursIndex openingHoursIndex;
+    private final CapacityLedger ledger;
+
+    @Value("${availability.batch-max:1000}")
+    private int batchMax;
+
+    public Disponibilite verifier(Long restaurantId, LocalDateTime dateTime, Integer guests) {
+        RestaurantDTO restaurant = searchEngine.trouver(restaurantId).orElse(null);
+        return evaluer(restaurantId, restaurant, dateTime, guests, LocalDateTime.now());
+    }
+
+    // Toutes les demandes sont évaluées sur un seul chargement des fiches concernées
+    public List<DisponibiliteDTO> verifierPlusieurs(DisponibiliteBatchRequest request) {
+        List<DisponibiliteBatchRequest.Demande> demandes = developper(request);
+        long[] ids = demandes.stream()
+                .map(DisponibiliteBatchRequest.Demande::getRestaurantId)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+        Map<Long, RestaurantDTO> restaurants = new HashMap<>();
+        searchEngine.trouverTous(ids).forEach(restaurant -> restaurants.put(restaurant.getId(), restaurant));
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<DisponibiliteDTO> resultats = new ArrayList<>(demandes.size());
+        for (DisponibiliteBatchRequest.Demande demande : demandes) {
+            Disponibilite disponibilite = evaluer(demande.getRestaurantId(),
+                    restaurants.get(demande.getRestaurantId()), demande.getDateTime(), demande.getGuests(), maintenant);
+            resultats.add(DisponibiliteDTO.builder()
+                    .restaurantId(demande.getRestaurantId())
+                    .dateTime(demande.getDateTime())
+                    .guests(demande.getGuests())
+                    .status(disponibilite.getStatut())
+                    .remainingSeats(disponibilite.getPlacesRestantes())
+                    .build());
+        }
+        return resultats;
+    }
+
+    public Disponibilite reserver(Long restaurantId, ReservationCapaciteRequest request) {
+        if (request.getReservationId() == null) {
+            return Disponibilite.refus(AvailabilityStatus.INVALID_REQUEST, "Identifiant de réservation manquant");
+        }
+        RestaurantDTO restaurant = searchEngine.trouver(restaurantId).orElse(null);
+        Disponibilite refus = controler(restaurantId, restaurant,
+                request.getDateTime(), request.getGuests(), LocalDateTime.now());
+        if (refus != null) {
+            return refus;
+        }
+        int capacite = capacite(restaurant);
+        if (!ledger.reserver(request.getReservationId(), restaurantId, capacite,
+                request.getDateTime(), request.getGuests())) {
+            return Disponibilite.refus(AvailabilityStatus.FULL, "Pas de disponibilité pour cette date");
+        }
+        return Disponibilite.accord("Places réservées", restaurant,
+                ledger.placesRestantes(restaurantId, capacite, request.getDateTime()));
+    }
+
+    public boolean liberer(Long reservationId) {
+        return reservationId != null && ledger.liberer(reservationId);
+    }
+
+    private Disponibilite evaluer(Long restaurantId, RestaurantDTO restaurant,
+                                  LocalDateTime dateTime, Integer guests, LocalDateTime maintenant) {
+        Disponibilite refus = controler(restaurantId, restaurant, dateTime, guests, maintenant);
+        if (refus != null) {
+            return refus;
+        }
+        int restantes = ledger.placesRestantes(restaurantId, capacite(restaurant), dateTime);
+        if (restantes < guests) {
+            return Disponibilite.refus(AvailabilityStatus.FULL, "Pas de disponibilité pour cette date");
+        }
+        return Disponibilite.accord("Disponible", restaurant, restantes);
+    }
+
+    private Disponibilite controler(Long restaurantId, RestaurantDTO restaurant,
+                                    LocalDateTime dateTime, Integer guests, LocalDateTime maintenant) {
+        if (guests == null || guests < 1) {
+            return Disponibilite.refus(AvailabilityStatus.INVALID_REQUEST, "Nombre d'invités invalide");
+        }
+        if (dateTime == null) {
+            return Disponibilite.refus(AvailabilityStatus.INVALID_REQUEST, "Format de date invalide");
+        }
+        if (restaurant == null) {
+            return Disponibilite.refus(AvailabilityStatus.UNKNOWN_RESTAURANT,
+                    "Restaurant non trouvé avec l'ID: " + restaurantId);
+        }
+        if (guests > capacite(restaurant)) {
+            return Disponibilite.refus(AvailabilityStatus.INSUFFICIENT_CAPACITY, "Capacité insuffisante");
+        }
+        if (dateTime.isBefore(maintenant)) {
+            return Disponibilite.refus(AvailabilityStatus.PAST, "La réservation doit être dans le futur");
+        }
+        if (!openingHoursIndex.estOuvert(restaurantId, dateTime)) {
+            return Disponibilite.refus(AvailabilityStatus.CLOSED, "Restaurant fermé à cette heure");
+        }
+        return null;
+    }
+
+    // Demandes explicites, puis chaque restaurant croisé avec chaque horaire de la plage
+    private List<DisponibiliteBatchRequest.Demande> developper(DisponibiliteBatchRequest request) {
+        List<DisponibiliteBatchRequest.Demande> demandes = new ArrayList<>();
+        if (request.getDemandes() != null) {
+            demandes.addAll(request.getDemandes());
+        }
+        if (request.getRestaurantIds() != null && request.getDebut() != null) {
+            LocalDateTime fin = request.getFin() != null ? request.getFin() : request.getDebut();
+            int pas = request.getPasMinutes() != null && request.getPasMinutes() > 0
+                    ? request.getPasMinutes() : PAS_PAR_DEFAUT;
+            long horaires = Duration.between(request.getDebut(), fin).toMinutes() / pas + 1;
+            verifierTaille(demandes.size() + Math.max(0, horaires) * request.getRestaurantIds().size());
+            for (Long restaurantId : request.getRestaurantIds()) {
+                for (LocalDateTime t = request.getDebut(); !t.isAfter(fin); t = t.plusMinutes(pas)) {
+                    demandes.add(new DisponibiliteBatchRequest.Demande(restaurantId, t, request.getGuests()));
+                }
+            }
+        }
+        verifierTaille(demandes.size());
+        return demandes;
+    }
+
+    private void verifierTaille(long taille) {
+        if (taille > batchMax) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trop de demandes de disponibilité (" + taille + ", maximum " + batchMax + ")");
+        }
+    }
+
+    // Sans capacité renseignée, le restaurant n'est pas limité en places
+    private static int capacite(RestaurantDTO restaurant) {
+        return restaurant.getCapaciteTotale() != null ? restaurant.getCapaciteTotale() : Integer.MAX_VALUE;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Disponibilite {
+        private final AvailabilityStatus statut;
+        private final String message;
+        private final RestaurantDTO restaurant;
+        private final Integer placesRestantes;
+
+        public boolean isDisponible() {
+            return statut == AvailabilityStatus.AVAILABLE;
+        }
+
+        static Disponibilite refus(AvailabilityStatus statut, String message) {
+            return new Disponibilite(statut, message, null, null);
+        }
+
+        static Disponibilite accord(String message, RestaurantDTO restaurant, int placesRestantes) {
+            return new Disponibilite(AvailabilityStatus.AVAILABLE, message, restaurant,
+                    restaurant.getCapaciteTotale() != null ? placesRestantes : null);
+        }
+    }
+}
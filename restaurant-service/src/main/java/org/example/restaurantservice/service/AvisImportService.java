@@ -0,0 +1,176 @@
+package org.example.restaurantservice.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.restaurantservice.dto.AvisDTO;
+import org.example.restaurantservice.dto.ImportAvisResultDTO;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Import massif d'avis depuis un tableau JSON ou un flux NDJSON, lu élément par élément.
+ * Les avis valides sont insérés par lots JDBC (l'identité IDENTITY empêche Hibernate de le faire),
+ * chaque lot dans sa transaction, et les agrégats de notes ne sont mis à jour qu'une fois par lot.
+ * Un lot refusé par la base est repris avis par avis : seuls les fautifs sont rejetés et signalés,
+ * et importes compte exactement les lignes validées.
+ */
+@Service
+@Slf4j
+public class AvisImportService {
+
+    private static final String INSERTION =
+            "INSERT INTO avis (commentaire, note, auteur_nom, restaurant_id, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final int ERREURS_MAX = 100;
+    private static final int AUTEUR_MAX = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final RestaurantSearchEngine searchEngine;
+    private final RatingAggregator ratingAggregator;
+    private final int tailleLot;
+
+    public AvisImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             RestaurantSearchEngine searchEngine,
+                             RatingAggregator ratingAggregator,
+                             @Value("${avis.import.taille-lot:500}") int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.searchEngine = searchEngine;
+        this.ratingAggregator = ratingAggregator;
+        this.tailleLot = tailleLot;
+    }
+
+    public ImportAvisResultDTO importer(InputStream flux) {
+        List<ImportAvisResultDTO.Erreur> erreurs = new ArrayList<>();
+        List<AvisDTO> lot = new ArrayList<>(tailleLot);
+        List<Long> positions = new ArrayList<>(tailleLot);
+        long recus = 0;
+        long importes = 0;
+        long rejetes = 0;
+
+        // Un tableau racine est parcouru élément par élément ; du NDJSON est lu valeur par valeur
+        try (MappingIterator<AvisDTO> avis = objectMapper.readerFor(AvisDTO.class).readValues(flux)) {
+            while (avis.hasNextValue()) {
+                AvisDTO dto = avis.nextValue();
+                recus++;
+                String invalide = valider(dto);
+                if (invalide != null) {
+                    rejetes++;
+                    signaler(erreurs, recus, invalide);
+                    continue;
+                }
+                lot.add(dto);
+                positions.add(recus);
+                if (lot.size() == tailleLot) {
+                    int inseres = inserer(lot, positions, erreurs);
+                    importes += inseres;
+                    rejetes += lot.size() - inseres;
+                    lot.clear();
+                    positions.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Flux illisible : ce qui précède est importé, la suite est abandonnée
+            signaler(erreurs, recus + 1, "Lecture interrompue: " + e.getMessage());
+        }
+        if (!lot.isEmpty()) {
+            int inseres = inserer(lot, positions, erreurs);
+            importes += inseres;
+            rejetes += lot.size() - inseres;
+        }
+
+        log.info("Import d'avis : {} reçus, {} importés, {} rejetés", recus, importes, rejetes);
+        return ImportAvisResultDTO.builder()
+                .recus(recus)
+                .importes(importes)
+                .rejetes(rejetes)
+                .erreurs(erreurs)
+                .build();
+    }
+
+    // Nombre d'avis insérés ; les refus de la base sont signalés à la position de l'avis
+    private int inserer(List<AvisDTO> lot, List<Long> positions, List<ImportAvisResultDTO.Erreur> erreurs) {
+        try {
+            return insererLot(lot);
+        } catch (DataAccessException e) {
+            // Le lot est annulé en entier : chaque avis est repris seul pour n'écarter que les fautifs
+            log.warn("Lot de {} avis refusé par la base, reprise avis par avis: {}", lot.size(),
+                    e.getMostSpecificCause().getMessage());
+        }
+        int inseres = 0;
+        for (int i = 0; i < lot.size(); i++) {
+            try {
+                inseres += insererLot(List.of(lot.get(i)));
+            } catch (DataAccessException e) {
+                signaler(erreurs, positions.get(i), "Insertion refusée: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        return inseres;
+    }
+
+    private int insererLot(List<AvisDTO> lot) {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Object[]> lignes = new ArrayList<>(lot.size());
+        Map<Long, long[]> parRestaurant = new HashMap<>();
+        for (AvisDTO dto : lot) {
+            LocalDateTime createdAt = dto.getCreatedAt() != null ? dto.getCreatedAt() : maintenant;
+            lignes.add(new Object[]{dto.getCommentaire(), dto.getNote(), dto.getAuteurNom(),
+                    dto.getRestaurantId(), Timestamp.valueOf(createdAt)});
+            parRestaurant.computeIfAbsent(dto.getRestaurantId(), id -> new long[5])[dto.getNote() - 1]++;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERTION, lignes);
+            ratingAggregator.enregistrerApresCommit(parRestaurant);
+        });
+        return lignes.size();
+    }
+
+    private String valider(AvisDTO dto) {
+        if (dto == null) {
+            return "Avis vide";
+        }
+        if (dto.getNote() == null || dto.getNote() < 1 || dto.getNote() > 5) {
+            return "La note doit être entre 1 et 5";
+        }
+        if (dto.getCommentaire() == null || dto.getCommentaire().isBlank()) {
+            return "Le commentaire est obligatoire";
+        }
+        if (dto.getCommentaire().length() > 1000) {
+            return "Le commentaire dépasse 1000 caractères";
+        }
+        if (dto.getAuteurNom() == null || dto.getAuteurNom().isBlank()) {
+            return "Le nom de l'auteur est obligatoire";
+        }
+        if (dto.getAuteurNom().length() > AUTEUR_MAX) {
+            return "Le nom de l'auteur dépasse " + AUTEUR_MAX + " caractères";
+        }
+        if (dto.getRestaurantId() == null || !searchEngine.contient(dto.getRestaurantId())) {
+            return "Restaurant non trouvé";
+        }
+        return null;
+    }
+
+    private static void signaler(List<ImportAvisResultDTO.Erreur> erreurs, long position, String message) {
+        if (erreurs.size() < ERREURS_MAX) {
+            erreurs.add(new ImportAvisResultDTO.Erreur(position, message));
+        }
+    }
+}
@@ -1,22 +1,38 @@
 package org.example.restaurantservice.service;
 import lombok.RequiredArgsConstructor;
 import org.example.restaurantservice.dto.AvisDTO;
+import org.example.restaurantservice.dto.PageCurseur;
+import org.example.restaurantservice.dto.RepartitionNotesDTO;
+import org.example.restaurantservice.dto.RestaurantDTO;
 import org.example.restaurantservice.entity.Avis;
-import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
 import org.example.restaurantservice.repository.AvisRepository;
 import org.example.restaurantservice.repository.RestaurantRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AvisService implements IAvisService {
 
+    private static final int TAILLE_MAX = 100;
+    private static final LocalDateTime DEBUT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final AvisRepository avisRepository;
     private final RestaurantRepository restaurantRepository;
+    private final RestaurantSearchEngine searchEngine;
+    private final RatingAggregator ratingAggregator;
 
     @Override
     @Transactional
@@ -25,60 +41,105 @@ public class AvisService implements IAvisService {
             throw new RuntimeException("La note doit être entre 1 et 5");
         }
 
-        Restaurant restaurant = restaurantRepository.findById(avisDTO.getRestaurantId())
+        // Existence et nom lus en mémoire ; la clé étrangère se contente d'une référence
+        RestaurantDTO restaurant = searchEngine.trouver(avisDTO.getRestaurantId())
                 .orElseThrow(() -> new RuntimeException("Restaurant non trouvé"));
 
         Avis avis = Avis.builder()
                 .commentaire(avisDTO.getCommentaire())
                 .note(avisDTO.getNote())
                 .auteurNom(avisDTO.getAuteurNom())
-                .restaurant(restaurant)
+                .restaurant(restaurantRepository.getReferenceById(restaurant.getId()))
                 .build();
 
         Avis savedAvis = avisRepository.save(avis);
-        mettreAJourNoteMoyenne(restaurant.getId());
+        ratingAggregator.enregistrerApresCommit(restaurant.getId(), savedAvis.getNote(), 1);
 
-        return convertToDTO(savedAvis);
+        return AvisDTO.builder()
+                .id(savedAvis.getId())
+                .commentaire(savedAvis.getCommentaire())
+                .note(savedAvis.getNote())
+                .auteurNom(savedAvis.getAuteurNom())
+                .restaurantId(restaurant.getId())
+                .restaurantNom(restaurant.getNom())
+                .createdAt(savedAvis.getCreatedAt())
+                .build();
     }
 
+    // Tous les avis, sans pagination : comportement historique quand ni cursor ni size ne sont fournis
     @Override
-    public List<AvisDTO> getAvisByRestaurant(Long restaurantId) {
-        return avisRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurantId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<AvisDTO> getAvisByRestaurant(Long restaurantId, LocalDateTime since) {
+        return avisRepository.findPremierePage(restaurantId, since != null ? since : DEBUT, Pageable.unpaged());
     }
 
     @Override
-    public List<AvisDTO> getTop5AvisByRestaurant(Long restaurantId) {
-        return avisRepository.findTop5ByRestaurantIdOrderByCreatedAtDesc(restaurantId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public PageCurseur<AvisDTO> getAvisByRestaurant(Long restaurantId, String curseur, LocalDateTime since, int taille) {
+        int limite = Math.max(1, Math.min(taille, TAILLE_MAX));
+        LocalDateTime depuis = since != null ? since : DEBUT;
+        // Un élément de plus que demandé indique s'il existe une page suivante
+        Pageable page = PageRequest.of(0, limite + 1);
+        List<AvisDTO> avis;
+        if (curseur == null || curseur.isEmpty()) {
+            avis = avisRepository.findPremierePage(restaurantId, depuis, page);
+        } else {
+            Curseur position = Curseur.decoder(curseur);
+            avis = avisRepository.findPageSuivante(restaurantId, depuis, position.createdAt, position.id, page);
+        }
+        if (avis.size() <= limite) {
+            return new PageCurseur<>(avis, null);
+        }
+        List<AvisDTO> elements = avis.subList(0, limite);
+        AvisDTO dernier = elements.get(limite - 1);
+        return new PageCurseur<>(elements, new Curseur(dernier.getCreatedAt(), dernier.getId()).encoder());
     }
 
-    private void mettreAJourNoteMoyenne(Long restaurantId) {
-        Double moyenneNote = avisRepository.findAverageNoteByRestaurantId(restaurantId);
-        Long nombreAvis = avisRepository.countByRestaurantId(restaurantId);
+    @Override
+    public List<AvisDTO> getTop5AvisByRestaurant(Long restaurantId) {
+        return avisRepository.findPremierePage(restaurantId, DEBUT, PageRequest.of(0, 5));
+    }
 
-        if (moyenneNote != null) {
-            restaurantRepository.findById(restaurantId).ifPresent(restaurant -> {
-                restaurant.setNoteMoyenne(moyenneNote);
-                restaurant.setNombreAvis(nombreAvis.intValue());
-                restaurantRepository.save(restaurant);
-            });
+    public RepartitionNotesDTO getRepartitionNotes(Long restaurantId) {
+        long[] parNote = ratingAggregator.repartition(restaurantId);
+        Map<Integer, Long> repartition = new LinkedHashMap<>();
+        long nombre = 0;
+        long somme = 0;
+        for (int i = 0; i < parNote.length; i++) {
+            repartition.put(i + 1, parNote[i]);
+            nombre += parNote[i];
+            somme += (i + 1) * parNote[i];
         }
+        return RepartitionNotesDTO.builder()
+                .restaurantId(restaurantId)
+                .noteMoyenne(nombre == 0 ? null : (double) somme / nombre)
+                .nombreAvis(nombre)
+                .repartition(repartition)
+                .build();
     }
 
-    private AvisDTO convertToDTO(Avis avis) {
-        return AvisDTO.builder()
-                .id(avis.getId())
-                .commentaire(avis.getCommentaire())
-                .note(avis.getNote())
-                .auteurNom(avis.getAuteurNom())
-                .restaurantId(avis.getRestaurant().getId())
-                .restaurantNom(avis.getRestaurant().getNom())
-                .createdAt(avis.getCreatedAt())
-                .build();
+    // Position opaque (createdAt, id) du dernier avis renvoyé
+    private static final class Curseur {
+        final LocalDateTime createdAt;
+        final Long id;
+
+        Curseur(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        String encoder() {
+            String valeur = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Curseur decoder(String curseur) {
+            try {
+                String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+                int separateur = valeur.indexOf('|');
+                return new Curseur(LocalDateTime.parse(valeur.substring(0, separateur)),
+                        Long.parseLong(valeur.substring(separateur + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide");
+            }
+        }
     }
-}
\ No newline at end of file
+}
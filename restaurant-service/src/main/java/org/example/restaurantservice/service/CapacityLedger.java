@@ -0,0 +1,147 @@
+package org.example.restaurantservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registre des places occupées par restaurant et par créneau (15 minutes par défaut).
+ * Chaque créneau est un compteur atomique : une réservation incrémente par CAS tous les
+ * créneaux couverts par sa durée, dans l'ordre, et annule ses incréments si l'un d'eux
+ * dépasse la capacité. Aucun verrou global n'est pris.
+ * Les tenues sont indexées par identifiant de réservation, ce qui rend reserve/release idempotents.
+ */
+@Component
+@Slf4j
+public class CapacityLedger {
+
+    private final int minutesParCreneau;
+    private final int dureeReservation;
+    private final Map<Long, Map<Long, AtomicInteger>> occupation = new ConcurrentHashMap<>();
+    private final Map<Long, Tenue> tenues = new ConcurrentHashMap<>();
+    private final AtomicLong liberationsEnTrop = new AtomicLong();
+
+    public CapacityLedger(@Value("${availability.slot-minutes:15}") int minutesParCreneau,
+                          @Value("${availability.duree-reservation-minutes:120}") int dureeReservation) {
+        this.minutesParCreneau = minutesParCreneau;
+        this.dureeReservation = dureeReservation;
+    }
+
+    public boolean reserver(Long reservationId, Long restaurantId, int capacite, LocalDateTime debut, int couverts) {
+        Tenue nouvelle = tenue(restaurantId, debut, couverts);
+        if (nouvelle.equals(tenues.get(reservationId))) {
+            return true;
+        }
+        // Les nouvelles places sont prises avant de rendre les anciennes : un déplacement ne perd jamais sa table
+        if (!prendre(nouvelle, capacite)) {
+            return false;
+        }
+        Tenue precedente = tenues.put(reservationId, nouvelle);
+        if (precedente != null) {
+            rendre(precedente);
+        }
+        return true;
+    }
+
+    public boolean liberer(Long reservationId) {
+        Tenue tenue = tenues.remove(reservationId);
+        if (tenue == null) {
+            return false;
+        }
+        rendre(tenue);
+        return true;
+    }
+
+    // Places encore libres sur toute la durée d'une réservation commençant à debut
+    public int placesRestantes(Long restaurantId, int capacite, LocalDateTime debut) {
+        Tenue periode = tenue(restaurantId, debut, 0);
+        Map<Long, AtomicInteger> creneaux = occupation.get(restaurantId);
+        int maximum = 0;
+        if (creneaux != null) {
+            for (long c = periode.premierCreneau; c <= periode.dernierCreneau; c++) {
+                AtomicInteger compteur = creneaux.get(c);
+                if (compteur != null) {
+                    maximum = Math.max(maximum, compteur.get());
+                }
+            }
+        }
+        return Math.max(0, capacite - maximum);
+    }
+
+    // Créneaux rendus au-delà de leur occupation depuis le démarrage ; non nul, c'est un bug de comptage
+    public long liberationsEnTrop() {
+        return liberationsEnTrop.get();
+    }
+
+    // Les créneaux passés ne peuvent plus être réservés : on les retire du registre
+    @Scheduled(fixedDelayString = "${availability.purge-interval-ms:3600000}")
+    public void purger() {
+        long limite = creneau(LocalDateTime.now());
+        tenues.values().removeIf(tenue -> tenue.dernierCreneau < limite);
+        occupation.values().forEach(creneaux -> creneaux.keySet().removeIf(c -> c < limite));
+    }
+
+    private boolean prendre(Tenue tenue, int capacite) {
+        Map<Long, AtomicInteger> creneaux = occupation.computeIfAbsent(tenue.restaurantId, id -> new ConcurrentHashMap<>());
+        for (long c = tenue.premierCreneau; c <= tenue.dernierCreneau; c++) {
+            AtomicInteger compteur = creneaux.computeIfAbsent(c, k -> new AtomicInteger());
+            int courant;
+            do {
+                courant = compteur.get();
+                if (courant + tenue.couverts > capacite) {
+                    annuler(creneaux, tenue.premierCreneau, c - 1, tenue.couverts);
+                    return false;
+                }
+            } while (!compteur.compareAndSet(courant, courant + tenue.couverts));
+        }
+        return true;
+    }
+
+    private void rendre(Tenue tenue) {
+        Map<Long, AtomicInteger> creneaux = occupation.get(tenue.restaurantId);
+        if (creneaux != null) {
+            annuler(creneaux, tenue.premierCreneau, tenue.dernierCreneau, tenue.couverts);
+        }
+    }
+
+    // Un compteur ne descend pas sous zéro, mais une libération qui l'y mènerait est comptée et journalisée
+    private void annuler(Map<Long, AtomicInteger> creneaux, long premier, long dernier, int couverts) {
+        for (long c = premier; c <= dernier; c++) {
+            AtomicInteger compteur = creneaux.get(c);
+            if (compteur != null) {
+                int avant = compteur.getAndUpdate(valeur -> Math.max(0, valeur - couverts));
+                if (avant < couverts) {
+                    long total = liberationsEnTrop.incrementAndGet();
+                    log.warn("Créneau {} : {} couverts rendus pour {} occupés ({} libérations en trop)",
+                            c, couverts, avant, total);
+                }
+            }
+        }
+    }
+
+    private Tenue tenue(Long restaurantId, LocalDateTime debut, int couverts) {
+        long premier = creneau(debut);
+        long dernier = creneau(debut.plusMinutes(dureeReservation).minusNanos(1));
+        return new Tenue(restaurantId, premier, dernier, couverts);
+    }
+
+    private long creneau(LocalDateTime instant) {
+        return instant.toEpochSecond(ZoneOffset.UTC) / 60 / minutesParCreneau;
+    }
+
+    @lombok.Value
+    private static class Tenue {
+        Long restaurantId;
+        long premierCreneau;
+        long dernierCreneau;
+        int couverts;
+    }
+}
@@ -1,10 +1,13 @@
 package org.example.restaurantservice.service;
 import org.example.restaurantservice.dto.AvisDTO;
+import org.example.restaurantservice.dto.PageCurseur;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface IAvisService {
     AvisDTO ajouterAvis(AvisDTO avisDTO);
-    List<AvisDTO> getAvisByRestaurant(Long restaurantId);
+    List<AvisDTO> getAvisByRestaurant(Long restaurantId, LocalDateTime since);
+    PageCurseur<AvisDTO> getAvisByRestaurant(Long restaurantId, String curseur, LocalDateTime since, int taille);
     List<AvisDTO> getTop5AvisByRestaurant(Long restaurantId);
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import java.util.List;
 
 public interface IRestaurantService {
     Restaurant findById(Long id);
+    boolean existsById(Long id);
     List<Restaurant> findAll();
     List<Restaurant> searchByNom(String nom);
     List<Restaurant> findByTypeCuisine(String typeCuisine);
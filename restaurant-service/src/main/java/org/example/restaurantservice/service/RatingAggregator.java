@@ -0,0 +1,195 @@
+package org.example.restaurantservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.restaurantservice.repository.AvisRepository;
+import org.example.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Agrégats de notes par restaurant (histogramme 1 à 5 étoiles, d'où somme et nombre),
+ * chargés une fois au démarrage puis tenus à jour à chaque avis validé.
+ * Un avis ne déclenche plus de recalcul AVG/COUNT : seule la ligne du restaurant est réécrite,
+ * par un thread dédié juste après le commit ou, en mode write-behind, une fois par intervalle
+ * pour tous les avis reçus. Dans les deux cas, les avis en attente d'un même restaurant
+ * sont fusionnés en une seule écriture.
+ */
+@Component
+@Slf4j
+public class RatingAggregator {
+
+    private final AvisRepository avisRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TransactionTemplate nouvelleTransaction;
+    private final boolean writeBehind;
+    private final Map<Long, AtomicReference<Notes>> agregats = new ConcurrentHashMap<>();
+    private final Set<Long> aPublier = ConcurrentHashMap.newKeySet();
+    // Hors du thread de requête : sa connexion est encore tenue pendant afterCommit
+    private final ExecutorService publication = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "publication-notes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RatingAggregator(AvisRepository avisRepository,
+                            RestaurantRepository restaurantRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${avis.agregation.write-behind:false}") boolean writeBehind) {
+        this.avisRepository = avisRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.nouvelleTransaction = new TransactionTemplate(transactionManager);
+        this.nouvelleTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeBehind = writeBehind;
+    }
+
+    // Avant l'ouverture du serveur HTTP : aucun avis ne peut être compté deux fois
+    @PostConstruct
+    public void charger() {
+        for (Object[] ligne : avisRepository.compterParRestaurantEtNote()) {
+            Long restaurantId = (Long) ligne[0];
+            int note = (Integer) ligne[1];
+            long nombre = (Long) ligne[2];
+            agregat(restaurantId).updateAndGet(notes -> notes.ajouter(note, nombre));
+        }
+        log.info("Agrégats de notes chargés pour {} restaurants", agregats.size());
+    }
+
+    // Après un chargement massif de la table : charger() s'ajoute aux agrégats existants
+    public void recharger() {
+        agregats.clear();
+        charger();
+    }
+
+    // À appeler dans la transaction qui insère les avis : rien n'est compté si elle est annulée
+    public void enregistrerApresCommit(Long restaurantId, int note, long nombre) {
+        long[] parNote = new long[5];
+        parNote[note - 1] = nombre;
+        enregistrerApresCommit(Map.of(restaurantId, parNote));
+    }
+
+    // Un lot d'avis : nombre d'avis par note (indices 0 à 4) pour chaque restaurant touché
+    public void enregistrerApresCommit(Map<Long, long[]> parRestaurant) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enregistrer(parRestaurant);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enregistrer(parRestaurant);
+            }
+        });
+    }
+
+    public long[] repartition(Long restaurantId) {
+        AtomicReference<Notes> agregat = agregats.get(restaurantId);
+        return agregat != null ? agregat.get().parNote.clone() : new long[5];
+    }
+
+    @Scheduled(fixedDelayString = "${avis.agregation.flush-interval-ms:2000}")
+    public void publierEnAttente() {
+        for (Long restaurantId : aPublier) {
+            aPublier.remove(restaurantId);
+            try {
+                publier(restaurantId);
+            } catch (RuntimeException e) {
+                log.warn("Publication de la note du restaurant {} reportée: {}", restaurantId, e.getMessage());
+                aPublier.add(restaurantId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void arreter() throws InterruptedException {
+        publication.shutdown();
+        publication.awaitTermination(10, TimeUnit.SECONDS);
+        publierEnAttente();
+    }
+
+    private void enregistrer(Map<Long, long[]> parRestaurant) {
+        parRestaurant.forEach((restaurantId, parNote) -> {
+            agregat(restaurantId).updateAndGet(notes -> notes.ajouter(parNote));
+            aPublier.add(restaurantId);
+        });
+        if (!writeBehind) {
+            publication.execute(this::publierEnAttente);
+        }
+    }
+
+    // Les écritures d'un même restaurant sont sérialisées et portent toujours l'agrégat le plus récent
+    private void publier(Long restaurantId) {
+        AtomicReference<Notes> agregat = agregat(restaurantId);
+        synchronized (agregat) {
+            Notes notes = agregat.get();
+            if (notes.nombre() == 0) {
+                return;
+            }
+            nouvelleTransaction.executeWithoutResult(status ->
+                    restaurantRepository.findById(restaurantId).ifPresent(restaurant -> {
+                        restaurant.setNoteMoyenne(notes.moyenne());
+                        restaurant.setNombreAvis((int) notes.nombre());
+                    }));
+        }
+    }
+
+    private AtomicReference<Notes> agregat(Long restaurantId) {
+        return agregats.computeIfAbsent(restaurantId, id -> new AtomicReference<>(Notes.AUCUNE));
+    }
+
+    // Instantané immuable, remplacé par CAS à chaque avis
+    private static final class Notes {
+        static final Notes AUCUNE = new Notes(new long[5]);
+
+        final long[] parNote;
+
+        Notes(long[] parNote) {
+            this.parNote = parNote;
+        }
+
+        Notes ajouter(int note, long nombre) {
+            long[] copie = parNote.clone();
+            copie[note - 1] += nombre;
+            return new Notes(copie);
+        }
+
+        Notes ajouter(long[] nombres) {
+            long[] copie = parNote.clone();
+            for (int i = 0; i < copie.length; i++) {
+                copie[i] += nombres[i];
+            }
+            return new Notes(copie);
+        }
+
+        long nombre() {
+            long nombre = 0;
+            for (long n : parNote) {
+                nombre += n;
+            }
+            return nombre;
+        }
+
+        double moyenne() {
+            long somme = 0;
+            for (int i = 0; i < parNote.length; i++) {
+                somme += (i + 1) * parNote[i];
+            }
+            return (double) somme / nombre();
+        }
+    }
+}
@@ -1,25 +1,75 @@
 package org.example.restaurantservice.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import lombok.RequiredArgsConstructor;
+import org.example.restaurantservice.dto.ChangementsCatalogueDTO;
+import org.example.restaurantservice.dto.JsonFragments;
+import org.example.restaurantservice.dto.PageCurseur;
 import org.example.restaurantservice.dto.RechercheRestaurantRequest;
 import org.example.restaurantservice.dto.RestaurantDTO;
+import org.example.restaurantservice.dto.SuggestionDTO;
 import org.example.restaurantservice.entity.Restaurant;
+import org.example.restaurantservice.index.CatalogueVersion;
+import org.example.restaurantservice.index.GeoIndex;
+import org.example.restaurantservice.index.OpeningHoursIndex;
+import org.example.restaurantservice.index.RankingIndex;
+import org.example.restaurantservice.index.RestaurantJsonCache;
+import org.example.restaurantservice.index.RestaurantSearchEngine;
+import org.example.restaurantservice.index.RestaurantStatistics;
+import org.example.restaurantservice.index.SuggestionIndex;
+import org.example.restaurantservice.index.TrigramIndex;
 import org.example.restaurantservice.repository.RestaurantRepository;
-import org.springframework.data.jpa.domain.Specification;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RestaurantService implements IRestaurantService {
 
+    private static final int TAILLE_MAX = 100;
+    private static final int LIGNES_PAR_ENVOI = 500;
+
     private final RestaurantRepository restaurantRepository;
+    private final GeoIndex geoIndex;
+    private final RestaurantSearchEngine searchEngine;
+    private final TrigramIndex trigramIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final RankingIndex rankingIndex;
+    private final RestaurantStatistics statistics;
+    private final OpeningHoursIndex openingHoursIndex;
+    private final CatalogueVersion catalogueVersion;
+    private final RestaurantJsonCache jsonCache;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
 
     @Override
     public Restaurant findById(Long id) {
@@ -27,6 +77,12 @@ public class RestaurantService implements IRestaurantService {
                 .orElseThrow(() -> new RuntimeException("Restaurant non trouvé avec l'ID: " + id));
     }
 
+    // Requête d'existence seule, sans charger l'entité ni passer par une exception
+    @Override
+    public boolean existsById(Long id) {
+        return restaurantRepository.existsById(id);
+    }
+
     @Override
     public List<Restaurant> findAll() {
         return restaurantRepository.findAll();
@@ -34,12 +90,35 @@ public class RestaurantService implements IRestaurantService {
 
     @Override
     public List<Restaurant> searchByNom(String nom) {
-        return restaurantRepository.findByNomContainingIgnoreCase(nom);
+        return restaurantRepository.findAllById(idsDe(trigramIndex.rechercher(TrigramIndex.Champ.NOM, nom)));
     }
 
     @Override
     public List<Restaurant> findByTypeCuisine(String typeCuisine) {
-        return restaurantRepository.findByTypeCuisineContainingIgnoreCase(typeCuisine);
+        return restaurantRepository.findAllById(
+                idsDe(trigramIndex.rechercher(TrigramIndex.Champ.TYPE_CUISINE, typeCuisine)));
+    }
+
+    // Variantes servies entièrement depuis la mémoire, en fiches JSON déjà encodées
+    public Optional<JsonFragments> getFiche(Long id) {
+        return jsonCache.fragment(id).map(JsonFragments::objet);
+    }
+
+    public JsonFragments listerTous() {
+        return rechercher(new RechercheRestaurantRequest());
+    }
+
+    public JsonFragments rechercherParNom(String nom) {
+        return fiches(trigramIndex.rechercher(TrigramIndex.Champ.NOM, nom));
+    }
+
+    public JsonFragments rechercherParTypeCuisine(String typeCuisine) {
+        return fiches(trigramIndex.rechercher(TrigramIndex.Champ.TYPE_CUISINE, typeCuisine));
+    }
+
+    public JsonFragments rechercher(RechercheRestaurantRequest request) {
+        RestaurantSearchEngine.Selection selection = searchEngine.selectionner(request, null, Integer.MAX_VALUE);
+        return JsonFragments.tableau(jsonCache.fragments(selection.getIds(), selection.getDistances()));
     }
 
     @Override
@@ -54,261 +133,200 @@ public class RestaurantService implements IRestaurantService {
 
     @Override
     public List<Restaurant> findNearbyRestaurants(BigDecimal latitude, BigDecimal longitude, Double rayon) {
-        return restaurantRepository.findNearbyRestaurants(latitude, longitude, rayon);
+        List<GeoIndex.Voisin> voisins = geoIndex.rechercherDansRayon(
+                latitude.doubleValue(), longitude.doubleValue(), rayon);
+        return chargerDansLOrdre(voisins);
     }
 
     @Override
     public List<String> getAllTypeCuisine() {
-        return restaurantRepository.findDistinctTypeCuisine();
+        return statistics.instantane().getCuisines();
     }
 
-    @Override
-    public List<Restaurant> getTopRatedRestaurants() {
-        return restaurantRepository.findTopRatedRestaurants();
+    public RestaurantStatistics.Instantane getStatistiques() {
+        return statistics.instantane();
     }
 
-    @Override
-    public List<RestaurantDTO> rechercherRestaurants(RechercheRestaurantRequest request) {
-        Specification<Restaurant> spec = Specification.where(null);
-
-        // Filtre par nom
-        if (request.getNom() != null && !request.getNom().isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("nom")), "%" + request.getNom().toLowerCase() + "%"));
-        }
-
-        // Filtre par type de cuisine
-        if (request.getTypeCuisine() != null && !request.getTypeCuisine().isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("typeCuisine")),
-                            "%" + request.getTypeCuisine().toLowerCase() + "%"));
-        }
-
-        // Filtre par note minimum
-        if (request.getNoteMin() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.greaterThanOrEqualTo(root.get("noteMoyenne"), request.getNoteMin()));
-        }
-
-        // Filtre par prix minimum
-        if (request.getPrixMin() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.greaterThanOrEqualTo(root.get("prixMoyen"), request.getPrixMin()));
-        }
-
-        // Filtre par prix maximum
-        if (request.getPrixMax() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.lessThanOrEqualTo(root.get("prixMoyen"), request.getPrixMax()));
-        }
-
-        // Filtre par capacité minimum
-        if (request.getCapaciteMin() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.greaterThanOrEqualTo(root.get("capaciteTotale"), request.getCapaciteMin()));
-        }
-
-        // Filtre par capacité maximum
-        if (request.getCapaciteMax() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.lessThanOrEqualTo(root.get("capaciteTotale"), request.getCapaciteMax()));
-        }
-
-        List<Restaurant> restaurants = restaurantRepository.findAll(spec);
-
-        // Filtrage par distance si coordonnées fournies
-        if (request.getLatitude() != null && request.getLongitude() != null) {
-            restaurants = restaurants.stream()
-                    .map(restaurant -> {
-                        double distance = calculerDistance(
-                                request.getLatitude().doubleValue(),
-                                request.getLongitude().doubleValue(),
-                                restaurant.getLatitude().doubleValue(),
-                                restaurant.getLongitude().doubleValue()
-                        );
-                        return new RestaurantDistance(restaurant, distance);
-                    })
-                    .filter(rd -> request.getRayon() == null || rd.distance <= request.getRayon())
-                    .sorted(getComparator(request))
-                    .map(rd -> rd.restaurant)
-                    .collect(Collectors.toList());
-        } else {
-            // Tri sans distance
-            restaurants.sort(getComparatorSansDistance(request));
-        }
+    // À lire avant les données servies : une réponse n'est jamais étiquetée plus récente qu'elle n'est
+    public long getVersionCatalogue() {
+        return catalogueVersion.courante();
+    }
 
-        // Filtre par ouverture maintenant
-        if (request.getOuvertMaintenant() != null && request.getOuvertMaintenant()) {
-            restaurants = restaurants.stream()
-                    .filter(this::estOuvertMaintenant)
-                    .collect(Collectors.toList());
-        }
+    public OptionalLong getVersionRestaurant(Long id) {
+        return catalogueVersion.duRestaurant(id);
+    }
 
-        return restaurants.stream()
-                .map(this::convertToDTO)
+    // Fiches lues après la version : au pire plus récentes qu'elle, et renvoyées au prochain appel
+    public ChangementsCatalogueDTO getChangements(long depuis) {
+        CatalogueVersion.Changements changements = catalogueVersion.changementsDepuis(depuis);
+        List<ChangementsCatalogueDTO.Fiche> fiches = searchEngine.trouverTous(changements.getModifies()).stream()
+                .map(fiche -> new ChangementsCatalogueDTO.Fiche(fiche.getId(), fiche.getCapaciteTotale(),
+                        fiche.getHeureOuverture(), fiche.getHeureFermeture()))
                 .collect(Collectors.toList());
+        return new ChangementsCatalogueDTO(changements.getVersion(), changements.isComplet(),
+                fiches, changements.getSupprimes());
     }
 
-    private Comparator<RestaurantDistance> getComparator(RechercheRestaurantRequest request) {
-        return (rd1, rd2) -> {
-            if (request.getTri() == null) {
-                return 0;
-            }
-
-            switch (request.getTri().toLowerCase()) {
-                case "distance":
-                    return Double.compare(rd1.distance, rd2.distance);
-
-                case "note":
-                    return Double.compare(rd2.restaurant.getNoteMoyenne(), rd1.restaurant.getNoteMoyenne());
-
-                case "popularite":
-                    return Integer.compare(rd2.restaurant.getNombreAvis(), rd1.restaurant.getNombreAvis());
-
-                case "prix_asc":
-                    return rd1.restaurant.getPrixMoyen().compareTo(rd2.restaurant.getPrixMoyen());
-
-                case "prix_desc":
-                    return rd2.restaurant.getPrixMoyen().compareTo(rd1.restaurant.getPrixMoyen());
-
-                case "capacite":
-                    return Integer.compare(rd2.restaurant.getCapaciteTotale(), rd1.restaurant.getCapaciteTotale());
-
-                default:
-                    return 0;
-            }
-        };
+    public long compterOuvertsMaintenant() {
+        return openingHoursIndex.compterOuverts(LocalDateTime.now());
     }
 
-    private Comparator<Restaurant> getComparatorSansDistance(RechercheRestaurantRequest request) {
-        return (r1, r2) -> {
-            if (request.getTri() == null) {
-                return 0;
-            }
-
-            switch (request.getTri().toLowerCase()) {
-                case "note":
-                    return Double.compare(r2.getNoteMoyenne(), r1.getNoteMoyenne());
-
-                case "popularite":
-                    return Integer.compare(r2.getNombreAvis(), r1.getNombreAvis());
-
-                case "prix_asc":
-                    return r1.getPrixMoyen().compareTo(r2.getPrixMoyen());
-
-                case "prix_desc":
-                    return r2.getPrixMoyen().compareTo(r1.getPrixMoyen());
+    @Override
+    public List<Restaurant> getTopRatedRestaurants() {
+        return restaurantRepository.findTopRatedRestaurants();
+    }
 
-                case "capacite":
-                    return Integer.compare(r2.getCapaciteTotale(), r1.getCapaciteTotale());
+    @Override
+    public List<RestaurantDTO> rechercherRestaurants(RechercheRestaurantRequest request) {
+        return searchEngine.rechercher(request);
+    }
 
-                default:
-                    return 0;
-            }
-        };
+    // Page de résultats dans l'ordre du tri demandé ; le curseur n'est valable que pour ce tri
+    public PageCurseur<JsonFragments.Fragment> rechercherPage(RechercheRestaurantRequest request,
+                                                              String curseur, int taille) {
+        String tri = request.getTri() != null ? request.getTri().toLowerCase() : "";
+        RestaurantSearchEngine.Position apres = curseur == null || curseur.isEmpty()
+                ? null : decoderCurseur(curseur, tri);
+        RestaurantSearchEngine.Selection selection =
+                searchEngine.selectionner(request, apres, Math.max(1, Math.min(taille, TAILLE_MAX)));
+        RestaurantSearchEngine.Position suivante = selection.getSuivante();
+        return new PageCurseur<>(jsonCache.fragments(selection.getIds(), selection.getDistances()),
+                suivante != null ? encoderCurseur(tri, suivante) : null);
     }
 
-    public boolean estOuvertMaintenant(Restaurant restaurant) {
+    public int masqueChamps(String fields) {
+        if (fields == null) {
+            return JsonFragments.TOUS_LES_CHAMPS;
+        }
         try {
-            LocalTime maintenant = LocalTime.now();
+            return jsonCache.masque(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
 
-            if (restaurant.getHeureOuverture() == null || restaurant.getHeureFermeture() == null) {
-                return false;
+    // Tableau JSON écrit au fil de la lecture : seules les colonnes des champs demandés sont lues,
+    // et seules les lignes du lot courant restent en mémoire
+    @Transactional(readOnly = true)
+    public void ecrireTous(OutputStream sortie, int champs) throws IOException {
+        List<String> proprietes = jsonCache.proprietes(champs);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> requete = cb.createTupleQuery();
+        Root<Restaurant> restaurant = requete.from(Restaurant.class);
+        List<Selection<?>> colonnes = new ArrayList<>();
+        colonnes.add(restaurant.get("id").alias("id"));
+        for (String propriete : proprietes) {
+            // La distance n'existe que relativement à une position : pas de colonne
+            if (!propriete.equals("id") && !propriete.equals("distance")) {
+                colonnes.add(restaurant.get(propriete).alias(propriete));
             }
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-            LocalTime heureOuverture = LocalTime.parse(restaurant.getHeureOuverture(), formatter);
-            LocalTime heureFermeture = LocalTime.parse(restaurant.getHeureFermeture(), formatter);
-
-            // Gérer les cas où le restaurant ferme après minuit
-            if (heureFermeture.isBefore(heureOuverture)) {
-                return !maintenant.isBefore(heureOuverture) || !maintenant.isAfter(heureFermeture);
-            } else {
-                return !maintenant.isBefore(heureOuverture) && !maintenant.isAfter(heureFermeture);
+        }
+        requete.multiselect(colonnes).orderBy(cb.asc(restaurant.get("id")));
+
+        try (Stream<Tuple> lignes = entityManager.createQuery(requete)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, LIGNES_PAR_ENVOI)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+             JsonGenerator json = objectMapper.getFactory().createGenerator(sortie)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            int n = 0;
+            for (Iterator<Tuple> it = lignes.iterator(); it.hasNext(); ) {
+                Tuple ligne = it.next();
+                json.writeStartObject();
+                for (String propriete : proprietes) {
+                    json.writeFieldName(propriete);
+                    json.writeObject(propriete.equals("distance") ? null : ligne.get(propriete));
+                }
+                json.writeEndObject();
+                if (++n % LIGNES_PAR_ENVOI == 0) {
+                    json.flush();
+                }
             }
-        } catch (Exception e) {
-            return false;
+            json.writeEndArray();
         }
     }
 
-    private double calculerDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Rayon de la Terre en km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return R * c;
+    public boolean estOuvertMaintenant(Restaurant restaurant) {
+        return OpeningHoursIndex.compiler(restaurant).estOuvert(LocalDateTime.now());
     }
 
-    private RestaurantDTO convertToDTO(Restaurant restaurant) {
-        return RestaurantDTO.builder()
-                .id(restaurant.getId())
-                .nom(restaurant.getNom())
-                .adresse(restaurant.getAdresse())
-                .latitude(restaurant.getLatitude())
-                .longitude(restaurant.getLongitude())
-                .typeCuisine(restaurant.getTypeCuisine())
-                .description(restaurant.getDescription())
-                .heureOuverture(restaurant.getHeureOuverture())
-                .heureFermeture(restaurant.getHeureFermeture())
-                .prixMoyen(restaurant.getPrixMoyen())
-                .noteMoyenne(restaurant.getNoteMoyenne())
-                .nombreAvis(restaurant.getNombreAvis())
-                .capaciteTotale(restaurant.getCapaciteTotale())
-                .build();
+    // Autocomplétion servie par l'arbre préfixe en mémoire
+    public List<SuggestionDTO> suggerer(String prefixe, int limit) {
+        return suggestionIndex.suggerer(prefixe, Math.min(limit, SuggestionIndex.MAX_SUGGESTIONS));
     }
 
     // Nouvelle méthode pour les restaurants populaires
-    public List<RestaurantDTO> getRestaurantsPopulaires(int limit) {
-        return restaurantRepository.findAll().stream()
-                .sorted((r1, r2) -> Integer.compare(r2.getNombreAvis(), r1.getNombreAvis()))
-                .limit(limit)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public JsonFragments getRestaurantsPopulaires(int limit) {
+        return fiches(rankingIndex.plusPopulaires(limit));
+    }
+
+    public JsonFragments getMieuxNotes(Integer limit) {
+        return fiches(rankingIndex.mieuxNotes(limit != null ? limit : Integer.MAX_VALUE));
     }
 
     // Nouvelle méthode pour les restaurants à proximité
-    public List<RestaurantDTO> getRestaurantsProches(BigDecimal latitude, BigDecimal longitude, Double rayon) {
-        return restaurantRepository.findNearbyRestaurants(latitude, longitude, rayon).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public JsonFragments getRestaurantsProches(BigDecimal latitude, BigDecimal longitude, Double rayon,
+                                               Integer limit) {
+        List<GeoIndex.Voisin> voisins = limit != null
+                ? geoIndex.rechercherPlusProches(latitude.doubleValue(), longitude.doubleValue(), limit, rayon)
+                : geoIndex.rechercherDansRayon(latitude.doubleValue(), longitude.doubleValue(), rayon);
+
+        long[] ids = voisins.stream().mapToLong(GeoIndex.Voisin::getId).toArray();
+        double[] distances = voisins.stream().mapToDouble(GeoIndex.Voisin::getDistance).toArray();
+        return JsonFragments.tableau(jsonCache.fragments(ids, distances));
     }
 
     // Nouvelle méthode pour les recommandations personnalisées
-    public List<RestaurantDTO> getRecommandations(String typeCuisinePref, Double noteMinPref) {
-        Specification<Restaurant> spec = Specification.where(null);
-
+    public JsonFragments getRecommandations(String typeCuisinePref, Double noteMinPref) {
+        LongPredicate filtreCuisine = id -> true;
         if (typeCuisinePref != null && !typeCuisinePref.isEmpty()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("typeCuisine")), "%" + typeCuisinePref.toLowerCase() + "%"));
+            long[] ids = trigramIndex.rechercher(TrigramIndex.Champ.TYPE_CUISINE, typeCuisinePref);
+            filtreCuisine = id -> Arrays.binarySearch(ids, id) >= 0;
         }
 
-        if (noteMinPref != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.greaterThanOrEqualTo(root.get("noteMoyenne"), noteMinPref));
-        }
+        double noteMin = noteMinPref != null ? noteMinPref : Double.NEGATIVE_INFINITY;
+        return fiches(rankingIndex.mieuxNotes(10, noteMin, filtreCuisine));
+    }
 
-        return restaurantRepository.findAll(spec).stream()
-                .sorted((r1, r2) -> Double.compare(r2.getNoteMoyenne(), r1.getNoteMoyenne()))
-                .limit(10)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private JsonFragments fiches(long[] restaurantIds) {
+        return JsonFragments.tableau(jsonCache.fragments(restaurantIds, null));
     }
 
-    private static class RestaurantDistance {
-        Restaurant restaurant;
-        double distance;
+    private static String encoderCurseur(String tri, RestaurantSearchEngine.Position position) {
+        String valeur = tri + "|" + position.getCle() + "|" + position.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valeur.getBytes(StandardCharsets.UTF_8));
+    }
 
-        RestaurantDistance(Restaurant restaurant, double distance) {
-            this.restaurant = restaurant;
-            this.distance = distance;
+    private static RestaurantSearchEngine.Position decoderCurseur(String curseur, String tri) {
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            if (!valeur.startsWith(tri + "|")) {
+                throw new IllegalArgumentException("Curseur d'un autre tri");
+            }
+            String position = valeur.substring(tri.length() + 1);
+            int separateur = position.indexOf('|');
+            return new RestaurantSearchEngine.Position(Double.parseDouble(position.substring(0, separateur)),
+                    Long.parseLong(position.substring(separateur + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide");
         }
     }
 
+    private static List<Long> idsDe(long[] restaurantIds) {
+        return Arrays.stream(restaurantIds).boxed().collect(Collectors.toList());
+    }
+
+    // Charge les restaurants en une requête en conservant l'ordre des voisins
+    private List<Restaurant> chargerDansLOrdre(List<GeoIndex.Voisin> voisins) {
+        Map<Long, Restaurant> parId = restaurantRepository.findAllById(
+                        voisins.stream().map(GeoIndex.Voisin::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return voisins.stream()
+                .map(voisin -> parId.get(voisin.getId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
 }
\ No newline at end of file
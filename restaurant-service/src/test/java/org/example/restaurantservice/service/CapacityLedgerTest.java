@@ -0,0 +1,87 @@
+package org.example.restaurantservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CapacityLedgerTest {
+
+    private static final long RESTAURANT = 1L;
+    private static final int CAPACITE = 10;
+    private static final LocalDateTime DINER = LocalDateTime.now().plusDays(7).withHour(20).withMinute(0)
+            .withSecond(0).withNano(0);
+
+    private final CapacityLedger ledger = new CapacityLedger(15, 120);
+
+    @Test
+    void reservationsConcurrentesSansDepasserLaCapacite() throws Exception {
+        int fils = 32;
+        ExecutorService executeur = Executors.newFixedThreadPool(fils);
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Boolean>> reservations = new ArrayList<>();
+        for (long id = 1; id <= fils; id++) {
+            long reservationId = id;
+            // Décalées d'un quart d'heure sur une heure : toutes partagent le créneau de 21:00
+            LocalDateTime debut = DINER.plusMinutes(15 * (id % 4));
+            reservations.add(executeur.submit(() -> {
+                depart.await();
+                return ledger.reserver(reservationId, RESTAURANT, CAPACITE, debut, 2);
+            }));
+        }
+        depart.countDown();
+        int accordees = 0;
+        for (Future<Boolean> reservation : reservations) {
+            if (reservation.get()) {
+                accordees++;
+            }
+        }
+        executeur.shutdown();
+
+        // Une prise annulée peut en faire échouer une autre le temps de rendre ses incréments :
+        // jamais plus que la capacité, et l'occupation correspond exactement aux prises accordées
+        assertThat(accordees).isBetween(1, CAPACITE / 2);
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER.plusHours(1))).isEqualTo(CAPACITE - 2 * accordees);
+        assertThat(ledger.liberationsEnTrop()).isZero();
+    }
+
+    @Test
+    void libererRendCeQueReserverAPris() {
+        assertThat(ledger.reserver(1L, RESTAURANT, CAPACITE, DINER, 4)).isTrue();
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(6);
+        assertThat(ledger.reserver(2L, RESTAURANT, CAPACITE, DINER.plusMinutes(30), 7)).isFalse();
+
+        assertThat(ledger.liberer(1L)).isTrue();
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(CAPACITE);
+        assertThat(ledger.reserver(2L, RESTAURANT, CAPACITE, DINER.plusMinutes(30), 7)).isTrue();
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(3);
+    }
+
+    @Test
+    void memeReservationDeuxFoisSansEffet() {
+        assertThat(ledger.reserver(1L, RESTAURANT, CAPACITE, DINER, 4)).isTrue();
+        assertThat(ledger.reserver(1L, RESTAURANT, CAPACITE, DINER, 4)).isTrue();
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(6);
+
+        assertThat(ledger.liberer(1L)).isTrue();
+        assertThat(ledger.liberer(1L)).isFalse();
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(CAPACITE);
+        assertThat(ledger.liberationsEnTrop()).isZero();
+    }
+
+    @Test
+    void deplacementRendLesAnciennesPlaces() {
+        assertThat(ledger.reserver(1L, RESTAURANT, CAPACITE, DINER, 8)).isTrue();
+        assertThat(ledger.reserver(1L, RESTAURANT, CAPACITE, DINER.plusHours(3), 8)).isTrue();
+
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER)).isEqualTo(CAPACITE);
+        assertThat(ledger.placesRestantes(RESTAURANT, CAPACITE, DINER.plusHours(3))).isEqualTo(2);
+    }
+}